@@ -0,0 +1,57 @@
+
+package com.jtconnors.test.scoreboard.jmh;
+
+import org.openjdk.jmh.infra.Blackhole;
+import com.jtconnors.scoreboard.common.LayoutXOptions;
+import com.jtconnors.scoreboard.common.ScoreboardInputInterface;
+
+/*
+ * ScoreboardInputInterface which hands every update to a Blackhole, so that
+ * the work done to decode it can't be optimized away.
+ */
+class BlackholeInputInterface implements ScoreboardInputInterface {
+
+    private final Blackhole blackhole;
+
+    BlackholeInputInterface(Blackhole blackhole) {
+        this.blackhole = blackhole;
+    }
+
+    @Override
+    public void setupTextNode(String name, double layoutY,
+            LayoutXOptions layoutXoption, String alignWithStr,
+            double fontSize, String content) {
+    }
+
+    @Override
+    public void setupDisplayableWithDigits(String name, double layoutY,
+            LayoutXOptions layoutXoption, String alignWithStr,
+            double digitHeight, int overallValue) {
+    }
+
+    @Override
+    public void setupScoreboard(String name, int backgroundColorVal) {
+    }
+
+    @Override
+    public void setupImageView(String name, String url,
+            LayoutXOptions layoutXoption,
+            String topLeftObjStr, String bottomRightObjStr) {
+    }
+
+    @Override
+    public void updateVariable(String name, String overallValueStr) {
+        blackhole.consume(name);
+        blackhole.consume(overallValueStr);
+    }
+
+    @Override
+    public void updateVariable(String name, int overallValue) {
+        blackhole.consume(name);
+        blackhole.consume(overallValue);
+    }
+
+    @Override
+    public void resolveXlocations() {
+    }
+}
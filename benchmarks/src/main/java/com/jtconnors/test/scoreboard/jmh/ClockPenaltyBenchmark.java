@@ -0,0 +1,77 @@
+
+package com.jtconnors.test.scoreboard.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.jtconnors.scoreboard.fx2.framework.Clock;
+import com.jtconnors.scoreboard.fx2.framework.Penalty;
+import com.jtconnors.scoreboard.fx2.framework.hockey.HockeyScoreboardXMLSpec;
+import com.jtconnors.scoreboard.fx2.impl.bulb.BulbClock;
+import com.jtconnors.scoreboard.fx2.impl.bulb.BulbPenalty;
+import com.jtconnors.scoreboard.fx2.impl.led.LEDClock;
+import com.jtconnors.scoreboard.fx2.impl.led.LEDPenalty;
+
+/*
+ * One CountdownEngine tick worth of work for the Clock and a Penalty:
+ * setting the overall value, which runs the private setDigits() to spread
+ * it over the individual digits (and formats the update message, which
+ * goes nowhere as no socket writer exists).  The nodes are not part of any scene, so the
+ * JavaFX toolkit is never started; Penalty only creates its Tooltip, which
+ * would need it, once it is added to a Scene.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClockPenaltyBenchmark {
+
+    @Param({"bulb", "led"})
+    public String style;
+
+    private Clock clock;
+    private Penalty penalty;
+    private int clockValue;
+    private int penaltyValue;
+
+    @Setup
+    public void setup() {
+        HockeyScoreboardXMLSpec.init();
+        if (style.equals("led")) {
+            clock = new LEDClock(HockeyScoreboardXMLSpec.NAME_clock);
+            penalty = new LEDPenalty(
+                    HockeyScoreboardXMLSpec.NAME_homePenalty1);
+        } else {
+            clock = new BulbClock(HockeyScoreboardXMLSpec.NAME_clock);
+            penalty = new BulbPenalty(
+                    HockeyScoreboardXMLSpec.NAME_homePenalty1);
+        }
+        clockValue = 12000;
+        penaltyValue = 120;
+    }
+
+    @Benchmark
+    public int clockSetDigits() {
+        clockValue = clockValue > 1 ? clockValue - 1 : 12000;
+        clock.setOverallValue(clockValue);
+        return clock.getOverallValue();
+    }
+
+    @Benchmark
+    public int penaltySetDigits() {
+        penaltyValue = penaltyValue > 1 ? penaltyValue - 1 : 120;
+        penalty.setOverallValue(penaltyValue);
+        return penalty.getOverallValue();
+    }
+}
@@ -0,0 +1,54 @@
+
+package com.jtconnors.test.scoreboard.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.jtconnors.scoreboard.fx2.impl.bulb.BulbDigit;
+import com.jtconnors.scoreboard.fx2.impl.led.LEDDigit;
+
+/*
+ * Digit.setValue(), which calls the implementation's refreshOnValueChange()
+ * to light the bulbs or segments making up the new value.  The digits are
+ * not part of any scene.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DigitRefreshBenchmark {
+
+    private BulbDigit bulbDigit;
+    private LEDDigit ledDigit;
+    private int value;
+
+    @Setup
+    public void setup() {
+        bulbDigit = new BulbDigit();
+        ledDigit = new LEDDigit();
+    }
+
+    @Benchmark
+    public int bulbDigitRefreshOnValueChange() {
+        value = (value + 1) % 10;
+        bulbDigit.setValue(value);
+        return bulbDigit.getValue();
+    }
+
+    @Benchmark
+    public int ledDigitRefreshOnValueChange() {
+        value = (value + 1) % 10;
+        ledDigit.setValue(value);
+        return ledDigit.getValue();
+    }
+}
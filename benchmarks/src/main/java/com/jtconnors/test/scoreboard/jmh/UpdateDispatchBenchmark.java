@@ -0,0 +1,115 @@
+
+package com.jtconnors.test.scoreboard.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.jtconnors.scoreboard.fx2.framework.UpdateTargetRegistry;
+import com.jtconnors.scoreboard.fx2.framework.XMLSpec;
+import com.jtconnors.scoreboard.fx2.framework.hockey.HockeyScoreboardXMLSpec;
+
+/*
+ * HockeyScoreboard.getUpdateVariable() is a lookup in an
+ * UpdateTargetRegistry filled in HockeyScoreboard.init().  Building a
+ * HockeyScoreboard needs a running JavaFX toolkit and media support, so this
+ * registers stand-in targets under the same names and measures the lookup
+ * itself, with names received as fresh Strings, the way the DOM parser
+ * delivers them, and as the interned names XMLUpdateParser delivers.
+ * getUpdateVariableEqualsChain() is the lookup the registry replaced, for
+ * comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpdateDispatchBenchmark {
+
+    private UpdateTargetRegistry<Object> registry;
+    private String[] internedNames;
+    private String[] copiedNames;
+    private String[] chainNames;
+    private Object[] chainTargets;
+    private int next;
+
+    @Setup
+    public void setup() {
+        HockeyScoreboardXMLSpec.init();
+        registry = new UpdateTargetRegistry<>();
+        int size = XMLSpec.UpdateVariableNames.size();
+        internedNames = new String[size];
+        copiedNames = new String[size];
+        for (int i = 0; i < size; i++) {
+            String name = XMLSpec.UpdateVariableNames.get(i);
+            registry.register(name, new Object());
+            internedNames[i] = name;
+            copiedNames[i] = new String(name);
+        }
+        chainNames = new String[] {
+            HockeyScoreboardXMLSpec.NAME_clock,
+            HockeyScoreboardXMLSpec.NAME_homeShotsOnGoal,
+            HockeyScoreboardXMLSpec.NAME_guestShotsOnGoal,
+            HockeyScoreboardXMLSpec.NAME_homeScore,
+            HockeyScoreboardXMLSpec.NAME_guestScore,
+            HockeyScoreboardXMLSpec.NAME_period,
+            HockeyScoreboardXMLSpec.NAME_homePenalty1,
+            HockeyScoreboardXMLSpec.NAME_guestPenalty1,
+            HockeyScoreboardXMLSpec.NAME_homePenalty2,
+            HockeyScoreboardXMLSpec.NAME_guestPenalty2,
+            HockeyScoreboardXMLSpec.NAME_homePenalty1playerNumber,
+            HockeyScoreboardXMLSpec.NAME_guestPenalty1playerNumber,
+            HockeyScoreboardXMLSpec.NAME_homePenalty2playerNumber,
+            HockeyScoreboardXMLSpec.NAME_guestPenalty2playerNumber,
+            HockeyScoreboardXMLSpec.NAME_horn
+        };
+        chainTargets = new Object[chainNames.length];
+        for (int i = 0; i < chainNames.length; i++) {
+            chainTargets[i] = registry.get(chainNames[i]);
+            if (chainTargets[i] == null) {
+                throw new IllegalStateException(
+                        "Not registered: " + chainNames[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object getUpdateVariableInterned() {
+        next = (next + 1) % internedNames.length;
+        return registry.get(internedNames[next]);
+    }
+
+    @Benchmark
+    public Object getUpdateVariableCopied() {
+        next = (next + 1) % copiedNames.length;
+        return registry.get(copiedNames[next]);
+    }
+
+    /*
+     * XMLSpec.isUpdateVariable()'s linear scan, then the String.equals()
+     * tests HockeyScoreboard.getUpdateVariable() used to make, in the same
+     * order
+     */
+    @Benchmark
+    public Object getUpdateVariableEqualsChain() {
+        next = (next + 1) % copiedNames.length;
+        String name = copiedNames[next];
+        if (!XMLSpec.UpdateVariableNames.contains(name)) {
+            return null;
+        }
+        for (int i = 0; i < chainNames.length; i++) {
+            if (name.equals(chainNames[i])) {
+                return chainTargets[i];
+            }
+        }
+        return null;
+    }
+}
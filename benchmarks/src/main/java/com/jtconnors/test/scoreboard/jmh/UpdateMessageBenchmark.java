@@ -0,0 +1,140 @@
+
+package com.jtconnors.test.scoreboard.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.jtconnors.scoreboard.fx2.framework.BinaryUpdateCodec;
+import com.jtconnors.scoreboard.fx2.framework.XMLSpec;
+import com.jtconnors.scoreboard.fx2.framework.hockey.HockeyScoreboardXMLInput;
+import com.jtconnors.scoreboard.fx2.framework.hockey.HockeyScoreboardXMLSpec;
+
+/*
+ * Creating an update message on a master (XMLSpec.updateStr) and reading
+ * it on a remote display (XMLInput.readUpdateStr).  The format parameter
+ * selects what readUpdateStr is given: the usual XML, a binary update,
+ * or XML that only the DocumentBuilder fallback accepts.  The messages
+ * are decoded once during setup to check that every format delivers the
+ * same updates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpdateMessageBenchmark {
+
+    @Param({"xml", "binary", "dom"})
+    public String format;
+
+    private HockeyScoreboardXMLInput xmlInput;
+    private BlackholeInputInterface inputInterface;
+    private String[] messages;
+    private int next;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        HockeyScoreboardXMLSpec.init();
+        inputInterface = new BlackholeInputInterface(blackhole);
+        xmlInput = new HockeyScoreboardXMLInput(inputInterface);
+        xmlInput.initStringXMLDocumentBuilder();
+        BinaryUpdateCodec codec =
+                new BinaryUpdateCodec(XMLSpec.UpdateVariableNames);
+        messages = new String[600];
+        long expectedSum = 0;
+        for (int i = 0; i < messages.length; i++) {
+            /*
+             * Mostly the clock, as in a running game, with some penalty
+             * and score updates mixed in
+             */
+            String name = HockeyScoreboardXMLSpec.NAME_clock;
+            int value = 12000 - i;
+            if (i % 10 == 3) {
+                name = HockeyScoreboardXMLSpec.NAME_homePenalty1;
+                value = 200 - i % 200;
+            } else if (i % 10 == 7) {
+                name = HockeyScoreboardXMLSpec.NAME_guestScore;
+                value = i % 10;
+            }
+            expectedSum += value + name.length();
+            switch (format) {
+                case "binary":
+                    messages[i] = codec.encode(name, value);
+                    break;
+                case "dom":
+                    /*
+                     * Comments are legal XML, but not something
+                     * XMLUpdateParser accepts.
+                     */
+                    messages[i] = XMLSpec.START_UPDATE
+                            + XMLSpec.START_NAME + name
+                            + XMLSpec.END_NAME + "<!-- dom -->"
+                            + XMLSpec.START_OVERALLVALUE + value
+                            + XMLSpec.END_OVERALLVALUE + XMLSpec.END_UPDATE;
+                    break;
+                default:
+                    messages[i] = XMLSpec.updateStr(name,
+                            String.valueOf(value));
+                    break;
+            }
+        }
+        checkDecoding(blackhole, expectedSum);
+    }
+
+    /*
+     * Every format must deliver the same updates: one per message, with
+     * the name and value it was encoded with.
+     */
+    private void checkDecoding(Blackhole blackhole, long expectedSum) {
+        long[] sum = new long[1];
+        int[] count = new int[1];
+        HockeyScoreboardXMLInput checkInput = new HockeyScoreboardXMLInput(
+                new BlackholeInputInterface(blackhole) {
+
+            @Override
+            public void updateVariable(String name, String overallValueStr) {
+                updateVariable(name, Integer.parseInt(overallValueStr));
+            }
+
+            @Override
+            public void updateVariable(String name, int overallValue) {
+                sum[0] += overallValue + name.length();
+                count[0]++;
+            }
+        });
+        checkInput.initStringXMLDocumentBuilder();
+        for (String message : messages) {
+            checkInput.readUpdateStr(message);
+        }
+        if (count[0] != messages.length || sum[0] != expectedSum) {
+            throw new IllegalStateException("Decoding " + format
+                    + " messages gave " + count[0] + " updates, checksum "
+                    + sum[0] + ", expected " + messages.length + ", "
+                    + expectedSum);
+        }
+    }
+
+    @Benchmark
+    public String updateStr() {
+        next = (next + 1) % 600;
+        return XMLSpec.updateStr(HockeyScoreboardXMLSpec.NAME_clock,
+                String.valueOf(12000 - next));
+    }
+
+    @Benchmark
+    public void readUpdateStr() {
+        next = (next + 1) % messages.length;
+        xmlInput.readUpdateStr(messages[next]);
+    }
+}
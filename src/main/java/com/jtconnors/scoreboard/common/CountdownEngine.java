@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.common;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Runs the game clock and the penalties of a ScoreboardState.  Nothing in
+ * here depends on JavaFX, so a master can run without a scene graph, and
+ * simulated boards can be driven from a plain thread.
+ *
+ * Time is kept on a monotonic time base, System.nanoTime() accumulated
+ * while the engine runs, rather than by counting ticks.  Each countdown
+ * remembers how much time was remaining at a point on the time base and
+ * derives the current remaining time from how far the time base has
+ * advanced since then, so late or missed ticks only delay the display;
+ * they never lose game time.
+ *
+ * While running, a ticker thread (supplied by the caller) fires every
+ * tenth of a second and posts a tick to the state's thread through the
+ * state Executor, Platform::runLater on a scoreboard with a user interface.
+ * Ticks are coalesced: if the previous one has not run yet, no new one is
+ * posted.  A tick writes every countdown whose displayed value changed to
+ * the state, with the engine as the source, all at the same reading of the
+ * time base.  A value written by anyone else (the keypad, a restored
+ * configuration) restarts that countdown from the new value.
+ *
+ * The clock counts tenths of a second.  When it runs out the engine stops
+ * and calls the onClockExpired Runnable, e.g. to sound the horn.  Penalties
+ * count whole seconds, rounded up so that a 2:00 penalty shows 2:00 until a
+ * full second has gone by, and only while they are non-zero.
+ *
+ * Apart from the ticker, everything happens on the state's thread:
+ * start(), stop(), the running listeners and the jitter statistics must
+ * only be used from there.
+ */
+public class CountdownEngine implements ScoreboardStateListener {
+
+    public static final long NANOS_PER_TENTH = 100_000_000L;
+
+    /*
+     * Told whenever the engine starts or stops
+     */
+    @FunctionalInterface
+    public interface RunningListener {
+        public void runningChanged(boolean running);
+    }
+
+    /*
+     * One countdown, counting in units of tenthsPerUnit tenths of a
+     * second, stored in the state under name.
+     */
+    private static class Countdown {
+        final String name;
+        final int tenthsPerUnit;
+        /*
+         * Tenths of a second remaining when the time base read baseNanos
+         */
+        int baseTenths;
+        long baseNanos;
+
+        Countdown(String name, int tenthsPerUnit) {
+            this.name = name;
+            this.tenthsPerUnit = tenthsPerUnit;
+        }
+
+        void reset(int value, long elapsedNanos) {
+            baseTenths = value * tenthsPerUnit;
+            baseNanos = elapsedNanos;
+        }
+
+        /*
+         * Units remaining as of elapsedNanos on the time base, rounded up
+         * and never less than zero
+         */
+        int remaining(long elapsedNanos) {
+            long tenthsElapsed = (elapsedNanos - baseNanos) / NANOS_PER_TENTH;
+            long tenths = Math.max(0, baseTenths - tenthsElapsed);
+            return (int) ((tenths + tenthsPerUnit - 1) / tenthsPerUnit);
+        }
+    }
+
+    /*
+     * Posts the ticks of one run of the engine.  Only run() is called on
+     * the ticker thread.
+     */
+    private class Ticks implements Runnable {
+        private final long startNanos;
+        private long count;
+
+        Ticks(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void run() {
+            long scheduledNanos = startNanos + ++count * NANOS_PER_TENTH;
+            if (tickPending.compareAndSet(false, true)) {
+                stateExecutor.execute(() -> tick(this, scheduledNanos));
+            }
+        }
+    }
+
+    private final ScoreboardState state;
+    private final Executor stateExecutor;
+    private final ScheduledExecutorService ticker;
+    private final Map<String, Countdown> countdowns = new HashMap<>();
+    private final List<Countdown> penalties = new ArrayList<>();
+    private final List<RunningListener> runningListeners =
+            new CopyOnWriteArrayList<>();
+    private final AtomicBoolean tickPending = new AtomicBoolean();
+    private Countdown clock;
+    private Runnable onClockExpired;
+
+    /*
+     * Running time accumulated up to the last stop, and the time of the
+     * last start if the engine is running
+     */
+    private long accumulatedNanos;
+    private long startNanos;
+    private boolean running;
+    private Ticks ticks;
+    private ScheduledFuture<?> tickFuture;
+
+    /*
+     * Tick jitter statistics for the current (or, once stopped, the last)
+     * run: how late each tick reached the state's thread relative to when
+     * it was scheduled.  start() resets them.
+     */
+    private long tickCount;
+    private long lastJitterNanos;
+    private long maxJitterNanos;
+    private long totalJitterNanos;
+
+    /*
+     * stateExecutor runs tasks on the thread the state is used from.
+     * ticker only fires the ticks; it is not shut down here.
+     */
+    public CountdownEngine(ScoreboardState state, Executor stateExecutor,
+            ScheduledExecutorService ticker) {
+        this.state = state;
+        this.stateExecutor = stateExecutor;
+        this.ticker = ticker;
+        state.addListener(this);
+    }
+
+    /*
+     * The game clock, in tenths of a second
+     */
+    public void setClock(String name) {
+        clock = addCountdown(name, 1);
+    }
+
+    /*
+     * A penalty, in seconds
+     */
+    public void addPenalty(String name) {
+        penalties.add(addCountdown(name, 10));
+    }
+
+    private Countdown addCountdown(String name, int tenthsPerUnit) {
+        Countdown countdown = new Countdown(name, tenthsPerUnit);
+        countdown.reset(state.get(name), getElapsedNanos());
+        countdowns.put(name, countdown);
+        return countdown;
+    }
+
+    public void setOnClockExpired(Runnable onClockExpired) {
+        this.onClockExpired = onClockExpired;
+    }
+
+    public void addRunningListener(RunningListener listener) {
+        runningListeners.add(listener);
+    }
+
+    public void removeRunningListener(RunningListener listener) {
+        runningListeners.remove(listener);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /*
+     * Start counting down.  Does nothing if already running or if the
+     * clock has run out.
+     */
+    public void start() {
+        if (running || (clock != null && state.get(clock.name) == 0)) {
+            return;
+        }
+        startNanos = System.nanoTime();
+        running = true;
+        resetJitterStats();
+        ticks = new Ticks(startNanos);
+        tickFuture = ticker.scheduleAtFixedRate(ticks, NANOS_PER_TENTH,
+                NANOS_PER_TENTH, TimeUnit.NANOSECONDS);
+        fireRunningChanged();
+    }
+
+    public void stop() {
+        stop(System.nanoTime());
+    }
+
+    private void stop(long nowNanos) {
+        if (!running) {
+            return;
+        }
+        accumulatedNanos += nowNanos - startNanos;
+        running = false;
+        ticks = null;
+        tickFuture.cancel(false);
+        tickFuture = null;
+        fireRunningChanged();
+    }
+
+    /*
+     * Nanoseconds the engine has spent running
+     */
+    public long getElapsedNanos() {
+        return getElapsedNanos(System.nanoTime());
+    }
+
+    private long getElapsedNanos(long nowNanos) {
+        return running ? accumulatedNanos + (nowNanos - startNanos) :
+                accumulatedNanos;
+    }
+
+    /*
+     * Values not written by the engine restart their countdown
+     */
+    @Override
+    public void stateChanged(String name, int value, Object source) {
+        if (source == this) {
+            return;
+        }
+        Countdown countdown = countdowns.get(name);
+        if (countdown != null) {
+            countdown.reset(value, getElapsedNanos());
+        }
+    }
+
+    /*
+     * Runs on the state's thread.  A tick left over from an earlier run is
+     * ignored.
+     */
+    private void tick(Ticks fromTicks, long scheduledNanos) {
+        tickPending.set(false);
+        if (fromTicks != ticks) {
+            return;
+        }
+        long nowNanos = System.nanoTime();
+        recordTick(nowNanos - scheduledNanos);
+        long elapsedNanos = getElapsedNanos(nowNanos);
+        for (Countdown penalty : penalties) {
+            if (state.get(penalty.name) != 0) {
+                update(penalty, elapsedNanos);
+            }
+        }
+        if (clock != null) {
+            update(clock, elapsedNanos);
+            if (state.get(clock.name) == 0) {
+                stop(nowNanos);
+                if (onClockExpired != null) {
+                    onClockExpired.run();
+                }
+            }
+        }
+    }
+
+    private void update(Countdown countdown, long elapsedNanos) {
+        int remaining = countdown.remaining(elapsedNanos);
+        if (remaining != state.get(countdown.name)) {
+            state.set(countdown.name, remaining, this);
+        }
+    }
+
+    private void fireRunningChanged() {
+        for (RunningListener listener : runningListeners) {
+            listener.runningChanged(running);
+        }
+    }
+
+    private void recordTick(long jitterNanos) {
+        lastJitterNanos = jitterNanos;
+        long absJitterNanos = Math.abs(jitterNanos);
+        if (absJitterNanos > maxJitterNanos) {
+            maxJitterNanos = absJitterNanos;
+        }
+        totalJitterNanos += absJitterNanos;
+        tickCount++;
+    }
+
+    private void resetJitterStats() {
+        tickCount = 0;
+        lastJitterNanos = 0;
+        maxJitterNanos = 0;
+        totalJitterNanos = 0;
+    }
+
+    /*
+     * Number of ticks applied since the engine was last started
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /*
+     * How late (or, if negative, early) the most recent tick was applied
+     */
+    public long getLastJitterNanos() {
+        return lastJitterNanos;
+    }
+
+    /*
+     * Largest absolute jitter seen since the engine was last started
+     */
+    public long getMaxJitterNanos() {
+        return maxJitterNanos;
+    }
+
+    /*
+     * Mean absolute jitter since the engine was last started
+     */
+    public long getMeanJitterNanos() {
+        return tickCount == 0 ? 0 : totalJitterNanos / tickCount;
+    }
+}
@@ -34,6 +34,7 @@ package com.jtconnors.scoreboard.common;
 import java.lang.invoke.MethodHandles;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.Arrays;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import com.jtconnors.scoreboard.fx2.framework.FocusableParent;
@@ -77,6 +78,12 @@ public class Globals {
      * Reference to HockeyScoreboard instance
      */
     public HockeyScoreboard hockeyScoreboardRef;
+
+    /*
+     * Game state shown by hockeyScoreboardRef.  Created in
+     * HockeyScoreboard.init()
+     */
+    public ScoreboardState scoreboardState;
     /*
      * Kludge needed to prevent multiple nodes handling the same keyboard
      * input more than once.
@@ -127,6 +134,21 @@ public class Globals {
      * Socket IP:port on the UI.
      */
     public boolean displaySocket = false;
+
+    /*
+     * Command-line flag used to overlay frame timing and update pipeline
+     * statistics on the UI (see RenderStats).  Measuring every frame
+     * takes an AnimationTimer which runs for as long as the scoreboard
+     * does, so JavaFX pulses every frame and a remote display never goes
+     * idle between updates while this is on.
+     */
+    public boolean displayStats = false;
+
+    /*
+     * Command-line flag naming a file to which the statistics shown by
+     * -DisplayStats are also written, as CSV, once a second.
+     */
+    public String statsLogFile = null;
     
     /*
      * Command-line flag used to specify a port number.
@@ -162,6 +184,58 @@ public class Globals {
      */
     public boolean useHorn = true;
 //    public boolean useHorn = false;
+
+    /*
+     * When false, a scoreboard neither serves nor reads updates over a
+     * socket.  Used by harnesses which drive a scoreboard directly, e.g.
+     * when rendering headless on a build machine.
+     */
+    public boolean useNetwork = true;
+
+    /*
+     * Command-line flag used to send updates in the compact binary format
+     * (see BinaryUpdateCodec) rather than XML.  Remote displays accept
+     * either format, so this only needs to be specified for the master.
+     */
+    public boolean binaryUpdates = false;
+
+    /*
+     * Command-line flag used to have a master combine all the updates made
+     * within one JavaFX pulse into a single message (see UpdateBatcher).
+     * Remote displays must be recent enough to understand <updates>.
+     */
+    public boolean batchUpdates = false;
+
+    /*
+     * Command-line flag used to have the scoreboard's static nodes
+     * (background, labels, line) rendered once into a cached image rather
+     * than redrawn along with the digits.  Turn off to compare rendering
+     * times.
+     */
+    public boolean cacheStaticLayer = true;
+
+    /*
+     * Command-line flag used to have a master prefix every update with the
+     * time it was sent, so that remote displays running with -DisplayStats
+     * can show their latency.  Remote displays must be recent enough to
+     * strip the timestamp.
+     */
+    public boolean timestampUpdates = false;
+
+    /*
+     * Command-line flag used to cap the JavaFX pulse (and so rendering)
+     * rate, e.g. to save power on a remote display.  0 leaves it at the
+     * JavaFX default, normally 60.  The cap itself is applied through
+     * system properties; this is kept to show it in the -DisplayStats
+     * overlay.
+     */
+    public int maxFps = 0;
+
+    /*
+     * Command-line flag used to run the scoreboard's networking threads as
+     * virtual threads (see NetworkThreads) rather than platform threads.
+     */
+    public boolean virtualThreads = true;
     
     /*
      * Command-line arguments help message supplied if user specifies
@@ -169,14 +243,24 @@ public class Globals {
      */
     private final String[] helpMsg = {
         "Command-line options:\n",
+        "  -BatchUpdates:[true or false] (default false)",
+        "\t\tSend all updates made during one frame as a single message",
+        "  -CacheStaticLayer:[true or false] (default true)",
+        "\t\tRender the static parts of the scoreboard once as a cached image",
         "  -configURL:URL (default: /scoreboard/config/config.xml in Scoreboard.jar)",
         "\t\tURL pointing to XML file describing remote client configuration",
         "  -debug:value ",
         "\t\tset debug flags (for values see scoreboard.common.Constants.java)",
         "  -DisableHorn:[true or false] (default false) ",
         "\t\tDisable use of the horn",
+        "  -DisableNetwork:[true or false] (default false) ",
+        "\t\tDon't open any sockets for scoreboard updates",
         "  -DisplaySocket",
         "\t\tShow socket connection info at bottom of scoreboard display",
+        "  -DisplayStats:[true or false] (default false)",
+        "\t\tOverlay frame timing and update statistics on the display",
+        "\t\t(keeps JavaFX rendering every frame, so a remote display",
+        "\t\tnever goes idle while this is on)",
         "  -DumpConfig:[true or false] (default false)",
         "\t\tDump layout of scoreboard in XML (for client customization)",
         "  -help or --help",
@@ -185,6 +269,8 @@ public class Globals {
         "\t\tURL pointer to alternate media file representing horn sound",
         "  -host:IP_ADDRESS (default: localhost)",
         "\t\tSpecify IP Address of socket",
+        "  -MaxFps:FRAMES_PER_SECOND (default 60)",
+        "\t\tLimit how often the display is rendered",
         "  -master (default)",
         "\t\tRun as a scoreboard controller (server)",
         "  -MulticastAddr:IP_ADDRESS (default: 227.27.27.27)",
@@ -193,14 +279,22 @@ public class Globals {
         "\t\tSpecify port for socket connection",
         "  -slave\t\t",
         "\t\tRun as a remote scoreboard client",
+        "  -StatsLog:FILE",
+        "\t\tAlso write the -DisplayStats statistics to FILE, as CSV",
         "  -tv",
         "\t\tRun in full screen mode for a TV (with padding for overscan)",
+        "  -TimestampUpdates:[true or false] (default false)",
+        "\t\tPrefix updates sent by a master with the time they were sent",
         "  -unlitOpacity:[0-100] (default 10)",
         "\t\tChange opacity of unlit scoreboard bulbs",
+        "  -UpdateFormat:[xml or binary] (default xml)",
+        "\t\tEncoding of scoreboard updates sent by a master",
         "  -UseIPSocket (default)",
         "\t\tUse IP sockets (with defaults) for scoreboard updates",
         "  -UseMulticastSocket",
         "\t\tUse multicast sockets (with defaults) for scoreboard updates",
+        "  -VirtualThreads:[true or false] (default true)",
+        "\t\tRun networking on virtual threads rather than platform threads",
         ""
     };
     
@@ -308,6 +402,45 @@ public class Globals {
                             displaySocket = true;
                         }
                     }   break;
+                case "-MaxFps":
+                    /*
+                     * Only takes effect if parsed before the JavaFX toolkit
+                     * starts, i.e. before Application.launch()
+                     */
+                    if (subarg.length > 1) {
+                        int value = Integer.parseInt(subarg[1]);
+                        if (value > 0) {
+                            maxFps = value;
+                            System.setProperty("javafx.animation.pulse",
+                                    subarg[1]);
+                            System.setProperty("javafx.animation.framerate",
+                                    subarg[1]);
+                        }
+                    }   break;
+                case "-DisplayStats":
+                    if (subarg.length > 1) {
+                        if (subarg[1].equals("true")) {
+                            displayStats = true;
+                        } else if (subarg[1].equals("false")) {
+                            displayStats = false;
+                        }
+                    }   break;
+                case "-StatsLog":
+                    /*
+                     * As with -configURL, put back any ":" in the file name
+                     */
+                    if (subarg.length > 1) {
+                        statsLogFile = String.join(":", Arrays.copyOfRange(
+                                subarg, 1, subarg.length));
+                    }   break;
+                case "-TimestampUpdates":
+                    if (subarg.length > 1) {
+                        if (subarg[1].equals("true")) {
+                            timestampUpdates = true;
+                        } else if (subarg[1].equals("false")) {
+                            timestampUpdates = false;
+                        }
+                    }   break;
                 case "-UseIPSocket":
                     useIPSocket = true;
                     socketAddr = localAddr.getHostAddress();
@@ -345,6 +478,30 @@ public class Globals {
                                     unlitOpacity);
                         }
                     }   break;
+                case "-BatchUpdates":
+                    if (subarg.length > 1) {
+                        if (subarg[1].equals("true")) {
+                            batchUpdates = true;
+                        } else if (subarg[1].equals("false")) {
+                            batchUpdates = false;
+                        }
+                    }   break;
+                case "-CacheStaticLayer":
+                    if (subarg.length > 1) {
+                        if (subarg[1].equals("true")) {
+                            cacheStaticLayer = true;
+                        } else if (subarg[1].equals("false")) {
+                            cacheStaticLayer = false;
+                        }
+                    }   break;
+                case "-UpdateFormat":
+                    if (subarg.length > 1) {
+                        if (subarg[1].equals("binary")) {
+                            binaryUpdates = true;
+                        } else if (subarg[1].equals("xml")) {
+                            binaryUpdates = false;
+                        }
+                    }   break;
                 case "-DisableHorn":
                     if (subarg.length > 1) {
                         if (subarg[1].equals("true")) {
@@ -354,6 +511,23 @@ public class Globals {
                             useHorn = true;
                         }
                     }   break;
+                case "-DisableNetwork":
+                    if (subarg.length > 1) {
+                        if (subarg[1].equals("true")) {
+                            useNetwork = false;
+                            LOGGER.log(Level.INFO, "Network is disabled."); 
+                        } else if (subarg[1].equals("false")) {
+                            useNetwork = true;
+                        }
+                    }   break;
+                case "-VirtualThreads":
+                    if (subarg.length > 1) {
+                        if (subarg[1].equals("true")) {
+                            virtualThreads = true;
+                        } else if (subarg[1].equals("false")) {
+                            virtualThreads = false;
+                        }
+                    }   break;
                 default:
                     break;
             }
@@ -49,5 +49,22 @@ public interface ScoreboardInputInterface {
 
     public void updateVariable(String name, String overallValueStr);
 
+    /*
+     * Called when an update has already been decoded into an int, so that
+     * no intermediate String needs to be created.
+     */
+    public default void updateVariable(String name, int overallValue) {
+        updateVariable(name, Integer.toString(overallValue));
+    }
+
+    /*
+     * Called for each variable of a snapshot (see XMLSpec.TAG_SNAPSHOT).
+     * A snapshot value may well be what is already displayed, so unlike
+     * an update, applying it must change nothing in that case.
+     */
+    public default void restoreVariable(String name, String valueStr) {
+        updateVariable(name, valueStr);
+    }
+
     public void resolveXlocations();
 }
@@ -31,8 +31,6 @@
 
 package com.jtconnors.scoreboard.common;
 
-import java.lang.reflect.Method;
-
 /*
  * This interface is used in conjunction with then XMLOutput class.  Its
  * purpose is to isolate platform specific details (e.g. Swing vs. FX2)
@@ -46,9 +44,17 @@ public interface ScoreboardOutputInterface {
 
     public double getScoreboardHeight();
 
-    public int getColorVal(Object obj, Method method);
+    /*
+     * The scoreboard variable configured by the named <config> element,
+     * and the XMLSpec TYPE_ constant describing it.
+     */
+    public Object getConfigVariable(String name);
+
+    public String getConfigVariableType(String name);
+
+    public int getColorVal(Object obj);
 
     public String getFieldName(Object displayable);
 
-    public int getPlayerNumber(Object obj, Method method);
+    public int getPlayerNumber(Object obj);
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*
+ * Game state of a scoreboard: the clock, scores, shots on goal, period,
+ * penalties, penalty player numbers and horn, each held as the int value
+ * carried by update messages.  Nothing in here depends on JavaFX, so the
+ * state itself can be created, written and listened to without a scene
+ * graph, e.g. to feed simulated boards in a load test.
+ *
+ * On a master the clock and penalty countdowns are run by a
+ * CountdownEngine, which writes their values here, so a master's game
+ * runs without JavaFX as well.
+ *
+ * The variables are the ones named in XMLSpec.UpdateVariableNames.  On a
+ * HockeyScoreboard the JavaFX nodes are views of this state: a node writes
+ * its new value here, and listeners take care of sending it to remote
+ * displays and of updating the node displaying the variable.
+ *
+ * Listeners hear about every set(), even if the value doesn't change.  A
+ * TwoDigit receiving the same value twice in a row toggles its display
+ * state, and the horn is an event rather than a value, so repeated writes
+ * are meaningful.
+ *
+ * A ScoreboardState is not thread safe; it is meant to be used from one
+ * thread, the JavaFX thread for a scoreboard with a user interface.
+ */
+public class ScoreboardState {
+
+    private final List<String> names;
+    private final Map<String, Integer> nameToId = new HashMap<>();
+    private final int[] values;
+    private final List<ScoreboardStateListener> listeners =
+            new CopyOnWriteArrayList<>();
+
+    public ScoreboardState(List<String> names) {
+        this.names = Collections.unmodifiableList(new ArrayList<>(names));
+        for (int i = 0; i < this.names.size(); i++) {
+            nameToId.put(this.names.get(i), i);
+        }
+        values = new int[this.names.size()];
+    }
+
+    public List<String> getNames() {
+        return names;
+    }
+
+    public boolean contains(String name) {
+        return nameToId.containsKey(name);
+    }
+
+    public int get(String name) {
+        return values[idOf(name)];
+    }
+
+    public void set(String name, int value) {
+        set(name, value, null);
+    }
+
+    /*
+     * Store value and notify the listeners.  source is passed on to them
+     * unchanged.
+     */
+    public void set(String name, int value, Object source) {
+        values[idOf(name)] = value;
+        for (ScoreboardStateListener listener : listeners) {
+            listener.stateChanged(name, value, source);
+        }
+    }
+
+    public void addListener(ScoreboardStateListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ScoreboardStateListener listener) {
+        listeners.remove(listener);
+    }
+
+    private int idOf(String name) {
+        Integer id = nameToId.get(name);
+        if (id == null) {
+            throw new IllegalArgumentException(
+                    "Not a scoreboard state variable: " + name);
+        }
+        return id;
+    }
+}
@@ -33,4 +33,16 @@ package com.jtconnors.scoreboard.common;
 
 public interface XMLReaderInterface {
     public void handleUpdate(String msg);
+
+    /*
+     * Bracket a series of handleUpdate() calls made in one go, allowing an
+     * implementation to apply only the newest value of each variable.
+     * endUpdates() returns the number of updates which were superseded.
+     */
+    public default void beginUpdates() {
+    }
+
+    public default int endUpdates() {
+        return 0;
+    }
 }
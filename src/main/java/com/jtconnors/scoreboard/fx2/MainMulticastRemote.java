@@ -39,6 +39,7 @@ import javafx.stage.Stage;
 import javafx.stage.WindowEvent;
 import com.jtconnors.scoreboard.fx2.impl.bulb.BulbHockeyScoreboard;
 import com.jtconnors.scoreboard.common.Globals;
+import com.jtconnors.scoreboard.fx2.util.FXUtils;
 
 
 public class MainMulticastRemote extends Application {
@@ -54,6 +55,7 @@ public class MainMulticastRemote extends Application {
         Scene scene = new Scene(group, group.getLayoutBounds().getWidth(),
                 group.getLayoutBounds().getHeight());
         stage.setScene(scene);
+        FXUtils.scaleToFitScene(scene, bulbScoreboard);
         stage.setOnCloseRequest((WindowEvent event) -> {
             Platform.exit();
             System.exit(0);
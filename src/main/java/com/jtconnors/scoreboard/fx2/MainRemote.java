@@ -37,6 +37,7 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 import com.jtconnors.scoreboard.fx2.impl.bulb.BulbHockeyScoreboard;
 import com.jtconnors.scoreboard.common.Globals;
+import com.jtconnors.scoreboard.fx2.util.FXUtils;
 import com.jtconnors.socket.DebugFlags;
 import javafx.application.Platform;
 import javafx.stage.WindowEvent;
@@ -55,6 +56,7 @@ public class MainRemote extends Application {
         Scene scene = new Scene(group, group.getLayoutBounds().getWidth(),
                 group.getLayoutBounds().getHeight());
         stage.setScene(scene);
+        FXUtils.scaleToFitScene(scene, bulbScoreboard);
         stage.setOnCloseRequest((WindowEvent event) -> {
             Platform.exit();
             System.exit(0);
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.fx2.framework;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.jtconnors.scoreboard.common.ScoreboardInputInterface;
+
+/*
+ * Compact alternative to the XML <update> message.  A binary update frame
+ * is laid out as follows:
+ *
+ *     version     1 byte, currently VERSION
+ *     sequence    unsigned varint, incremented for every frame sent
+ *     varId       1 byte, index of the variable in XMLSpec.UpdateVariableNames
+ *     value       zigzag encoded varint
+ *     [varId value] ...  further entries, if any, up to the end of the frame
+ *
+ * The socket classes we send updates over are line oriented and carry
+ * Strings, so a frame travels as the BINARY_PREFIX character followed by the
+ * frame in unpadded Base64.  Receivers can therefore tell a binary update from
+ * an XML one by its first character and accept both.  A clock tick which
+ * takes about 70 characters as XML takes 8 as a binary frame.
+ *
+ * The variable ids are only meaningful if both ends populate
+ * UpdateVariableNames the same way, which is the case as long as they run the
+ * same version of HockeyScoreboardXMLSpec.  Should that ever change, VERSION
+ * must be bumped.
+ *
+ * Encoding happens on the JavaFX thread of a master, decoding on the JavaFX
+ * thread of a remote display.  Instances are not thread safe.
+ */
+public class BinaryUpdateCodec {
+
+    public static final char BINARY_PREFIX = '#';
+    public static final int VERSION = 1;
+
+    private static final int MAX_FRAME_SIZE = 256;
+    private static final char[] BASE64_CHARS =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/"
+            .toCharArray();
+    private static final int[] BASE64_VALUES = new int[128];
+    static {
+        java.util.Arrays.fill(BASE64_VALUES, -1);
+        for (int i = 0; i < BASE64_CHARS.length; i++) {
+            BASE64_VALUES[BASE64_CHARS[i]] = i;
+        }
+    }
+
+    private final String[] names;
+    private final Map<String, Integer> nameToId = new HashMap<>();
+    private final byte[] frame = new byte[MAX_FRAME_SIZE];
+    private int frameLength;
+    private int frameEntries;
+    private int readPos;
+    private int nextSequence;
+    private int lastSequence = -1;
+
+    public BinaryUpdateCodec(List<String> names) {
+        if (names.size() > 0xff) {
+            throw new IllegalArgumentException(
+                    "Too many update variables for a one byte id: "
+                    + names.size());
+        }
+        this.names = names.toArray(new String[names.size()]);
+        for (int i = 0; i < this.names.length; i++) {
+            nameToId.put(this.names[i], i);
+        }
+    }
+
+    public static boolean isBinaryUpdate(CharSequence msg) {
+        return msg.length() > 0 && msg.charAt(0) == BINARY_PREFIX;
+    }
+
+    /*
+     * Methods used by the sending side
+     */
+
+    /**
+     * Encode a single variable update as a complete, line-safe message.
+     * @return the message, or null if varName is not an update variable.
+     */
+    public String encode(String varName, int value) {
+        beginFrame();
+        if (!addEntry(varName, value)) {
+            return null;
+        }
+        return endFrame();
+    }
+
+    /**
+     * Start a new frame.  Follow with one or more calls to addEntry(), then
+     * endFrame().
+     */
+    public void beginFrame() {
+        frameLength = 0;
+        frameEntries = 0;
+        frame[frameLength++] = (byte) VERSION;
+        writeVarint(nextSequence);
+        nextSequence = (nextSequence + 1) & Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return false if varName is not an update variable.
+     */
+    public boolean addEntry(String varName, int value) {
+        Integer id = nameToId.get(varName);
+        if (id == null) {
+            return false;
+        }
+        frame[frameLength++] = (byte) id.intValue();
+        writeVarint((value << 1) ^ (value >> 31));
+        frameEntries++;
+        return true;
+    }
+
+    /**
+     * @return the frame as a line-safe message, or null if no entries
+     * were added.
+     */
+    public String endFrame() {
+        if (frameEntries == 0) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(1 + (frameLength * 4 + 2) / 3);
+        sb.append(BINARY_PREFIX);
+        int i = 0;
+        for (; i + 2 < frameLength; i += 3) {
+            int bits = ((frame[i] & 0xff) << 16)
+                    | ((frame[i + 1] & 0xff) << 8) | (frame[i + 2] & 0xff);
+            sb.append(BASE64_CHARS[(bits >> 18) & 0x3f]);
+            sb.append(BASE64_CHARS[(bits >> 12) & 0x3f]);
+            sb.append(BASE64_CHARS[(bits >> 6) & 0x3f]);
+            sb.append(BASE64_CHARS[bits & 0x3f]);
+        }
+        int remaining = frameLength - i;
+        if (remaining > 0) {
+            int bits = (frame[i] & 0xff) << 16;
+            if (remaining > 1) {
+                bits |= (frame[i + 1] & 0xff) << 8;
+            }
+            sb.append(BASE64_CHARS[(bits >> 18) & 0x3f]);
+            sb.append(BASE64_CHARS[(bits >> 12) & 0x3f]);
+            if (remaining > 1) {
+                sb.append(BASE64_CHARS[(bits >> 6) & 0x3f]);
+            }
+        }
+        return sb.toString();
+    }
+
+    /*
+     * Methods used by the receiving side
+     */
+
+    /**
+     * Decode a message produced by endFrame() and pass each entry on to
+     * scoreboardInputInterface.updateVariable().  Nothing is allocated.
+     * @return false if the message is not a valid frame, in which case
+     * no updates have been applied.
+     */
+    public boolean decode(CharSequence msg,
+            ScoreboardInputInterface scoreboardInputInterface) {
+        if (!decodeBase64(msg) || frameLength < 1
+                || (frame[0] & 0xff) != VERSION) {
+            return false;
+        }
+        readPos = 1;
+        long sequence = readVarint();
+        if (sequence < 0 || sequence > Integer.MAX_VALUE) {
+            return false;
+        }
+        /*
+         * Validate the whole frame before applying anything from it
+         */
+        int entriesStart = readPos;
+        while (readPos < frameLength) {
+            int id = frame[readPos++] & 0xff;
+            if (id >= names.length || readVarint() < 0) {
+                return false;
+            }
+        }
+        lastSequence = (int) sequence;
+        readPos = entriesStart;
+        while (readPos < frameLength) {
+            int id = frame[readPos++] & 0xff;
+            int zigzag = (int) readVarint();
+            scoreboardInputInterface.updateVariable(names[id],
+                    (zigzag >>> 1) ^ -(zigzag & 1));
+        }
+        return true;
+    }
+
+    /**
+     * @return the sequence number of the last frame successfully decoded,
+     * or -1 if none has been.
+     */
+    public int getLastSequence() {
+        return lastSequence;
+    }
+
+    private void writeVarint(int value) {
+        while ((value & ~0x7f) != 0) {
+            frame[frameLength++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        frame[frameLength++] = (byte) value;
+    }
+
+    /*
+     * Returns the unsigned 32 bit value read, or -1 if the frame ends
+     * prematurely or the varint is longer than five bytes.
+     */
+    private long readVarint() {
+        long result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (readPos >= frameLength) {
+                return -1;
+            }
+            int b = frame[readPos++] & 0xff;
+            result |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return result & 0xffffffffL;
+            }
+        }
+        return -1;
+    }
+
+    private boolean decodeBase64(CharSequence msg) {
+        int len = msg.length();
+        /*
+         * Tolerate trailing whitespace left over by the line reader
+         */
+        while (len > 1 && msg.charAt(len - 1) <= ' ') {
+            len--;
+        }
+        int chars = len - 1;
+        if (chars % 4 == 1 || (chars * 3) / 4 > MAX_FRAME_SIZE) {
+            return false;
+        }
+        frameLength = 0;
+        int bits = 0;
+        int bitCount = 0;
+        for (int i = 1; i < len; i++) {
+            char c = msg.charAt(i);
+            int v = c < 128 ? BASE64_VALUES[c] : -1;
+            if (v < 0) {
+                return false;
+            }
+            bits = (bits << 6) | v;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                frame[frameLength++] = (byte) (bits >> bitCount);
+            }
+        }
+        return true;
+    }
+}
@@ -32,7 +32,6 @@
 package com.jtconnors.scoreboard.fx2.framework;
 
 import com.jtconnors.scoreboard.common.Globals;
-import javafx.scene.Group;
 import javafx.scene.shape.Circle;
 import javafx.scene.input.KeyCode;
 import javafx.scene.paint.Color;
@@ -49,10 +48,12 @@ import com.jtconnors.scoreboard.common.Constants;
  *
  *  For an example implementation of Clock, look at the
  *  scoreboard.fx2.impl.bulb.BulbClock.java code.
+ *
+ *  A Clock only displays the time remaining.  On a master the countdown
+ *  is run by a CountdownEngine, which writes the time to the
+ *  ScoreboardState that the Clock is a view of.
  */
 public abstract class Clock extends DisplayableWithDigits {
-    
-    private ScoreboardWithClock scoreboardWithClock;
 
     /*
      * Non-abstract instances of the following Digit variables must
@@ -83,16 +84,6 @@ public abstract class Clock extends DisplayableWithDigits {
      */
     protected Digit secondsDigit;
 
-    /**
-     * A Timer instance must be provided to this class at
-     * instantiation time.
-     */
-    protected Timer timer;
-
-    public Timer getTimer() {
-        return timer;
-    }
-
     /*
      * Depending on how much time is left, either of these two things
      * will be displayed.  During normal operation of the clock,
@@ -113,49 +104,31 @@ public abstract class Clock extends DisplayableWithDigits {
  ****************************************************************************/
 
     /*
-     * Creates the KeyPads associated with each Clock Digit.
+     * Creates the KeyPad for a Clock Digit.  In alternate mode (see
+     * setDigits()) the tenMinutesDigit and tenSecondsDigit have a different
+     * range, so theirs are kept as the normalKeyPad or alternateKeyPad
+     * for setDigits() to switch between.
      */
     @Override
-    protected Group createKeyPads() {
-        Group group = new Group();
-        tenMinutesDigit.normalKeyPad = new KeyPad(
-                tenMinutesDigit.getLayoutBounds().getWidth(),
-                0, 9, tenMinutesDigit, (DisplayableWithDigits)this);
-        tenMinutesDigit.keyPad = tenMinutesDigit.normalKeyPad;
-        minutesDigit.keyPad = new KeyPad(
-                minutesDigit.getLayoutBounds().getWidth(),
-                0, 9, minutesDigit, (DisplayableWithDigits)this);
-        tenSecondsDigit.normalKeyPad = new KeyPad(
-                tenSecondsDigit.getLayoutBounds().getWidth(),
-                0, 5, tenSecondsDigit, (DisplayableWithDigits)this);
-        tenSecondsDigit.keyPad = tenSecondsDigit.normalKeyPad;
-        secondsDigit.keyPad = new KeyPad(
-                secondsDigit.getLayoutBounds().getWidth(),
-                0, 9, secondsDigit, (DisplayableWithDigits)this);
-        for (final Digit d : digitArr) {
-            d.keyPad.setVisible(false);
-            d.setAction(new FunctionPtr() {
-                @Override
-                public void invoke() {
-                    d.displayKeyPad();
-                }
-            });
-            group.getChildren().add(d.keyPad);
+    protected KeyPad createKeyPad(Digit digit) {
+        boolean alternate = (getOverallValue() < 600) &&
+                (getOverallValue() > 0);
+        int maxValue = 9;
+        if (digit == tenMinutesDigit) {
+            maxValue = alternate ? 5 : 9;
+        } else if (digit == tenSecondsDigit) {
+            maxValue = alternate ? 9 : 5;
         }
-        /*
-         * Aternate KeyPads needed for tenMinutesDigit and TenSecondsDigit
-         */
-        tenMinutesDigit.alternateKeyPad = new KeyPad(
-                tenMinutesDigit.getLayoutBounds().getWidth(),
-                0, 5, tenMinutesDigit, (DisplayableWithDigits)this);
-        group.getChildren().add(tenMinutesDigit.alternateKeyPad);
-        tenMinutesDigit.alternateKeyPad.setVisible(false);
-        tenSecondsDigit.alternateKeyPad = new KeyPad(
-                tenSecondsDigit.getLayoutBounds().getWidth(),
-                0, 9, tenSecondsDigit, (DisplayableWithDigits)this);
-        group.getChildren().add(tenSecondsDigit.alternateKeyPad);
-        tenSecondsDigit.alternateKeyPad.setVisible(false);
-        return group;
+        KeyPad keyPad = new KeyPad(digit.getLayoutBounds().getWidth(),
+                0, maxValue, digit, (DisplayableWithDigits)this);
+        if ((digit == tenMinutesDigit) || (digit == tenSecondsDigit)) {
+            if (alternate) {
+                digit.alternateKeyPad = keyPad;
+            } else {
+                digit.normalKeyPad = keyPad;
+            }
+        }
+        return keyPad;
     }
 
     /*
@@ -165,7 +138,13 @@ public abstract class Clock extends DisplayableWithDigits {
      */
     @Override
     protected void positionDigits() {
-        getChildren().clear();
+        if (getChildren().isEmpty()) {
+            boundingRect.setFill(Color.TRANSPARENT);
+            getChildren().addAll(tenMinutesDigit, minutesDigit,
+                    tenSecondsDigit, secondsDigit,
+                    bottomPartOfColon, topPartOfColon, decimalPoint,
+                    boundingRect);
+        }
         tenMinutesDigit.setDigitHeight(getDigitHeight());
         double digitWidth = tenMinutesDigit.getLayoutBounds().getWidth();
 
@@ -194,14 +173,7 @@ public abstract class Clock extends DisplayableWithDigits {
                 digitWidth + (Constants.instance().INTER_DIGIT_GAP_FRACTION *
                 digitWidth));
 
-        getChildren().addAll(tenMinutesDigit, minutesDigit,
-                tenSecondsDigit, secondsDigit,
-                bottomPartOfColon, topPartOfColon, decimalPoint);
-
-        boundingRect.setFill(Color.TRANSPARENT);
-        boundingRect.setWidth(getLayoutBounds().getWidth());
-        boundingRect.setHeight(getLayoutBounds().getHeight());
-        getChildren().add(boundingRect);
+        fitBoundingRect();
         
         componentWidth = boundingRect.getWidth();
         componentHeight = boundingRect.getHeight();
@@ -540,31 +512,23 @@ public abstract class Clock extends DisplayableWithDigits {
     /*
      * Constructors
      */
-    public Clock(String varName, ScoreboardWithClock scoreboardWithClock,
-            Timer timer) {
-        this(varName, scoreboardWithClock, timer,
-                FxConstants.instance().DEFAULT_DIGIT_COLOR,
+    public Clock(String varName) {
+        this(varName, FxConstants.instance().DEFAULT_DIGIT_COLOR,
                 Constants.instance().DEFAULT_DIGIT_HEIGHT);
     }
 
-    public Clock(String varName, ScoreboardWithClock scoreboardWithClock, 
-            Timer timer, Color color) {
-        this(varName, scoreboardWithClock, timer, color,
-                Constants.instance().DEFAULT_DIGIT_HEIGHT);
+    public Clock(String varName, Color color) {
+        this(varName, color, Constants.instance().DEFAULT_DIGIT_HEIGHT);
     }
 
-    public Clock(String varName, ScoreboardWithClock scoreboardWithClock,
-            Timer timer, double digitHeight) {
-        this(varName, scoreboardWithClock, timer,
-                FxConstants.instance().DEFAULT_DIGIT_COLOR, digitHeight);
+    public Clock(String varName, double digitHeight) {
+        this(varName, FxConstants.instance().DEFAULT_DIGIT_COLOR,
+                digitHeight);
     }
 
-    public Clock(String varName, ScoreboardWithClock scoreboardWithClock,
-            Timer timer, Color color, double digitHeight) {
+    public Clock(String varName, Color color, double digitHeight) {
         super();  // Must call superclass constructor first
         this.varName = varName;
-        this.scoreboardWithClock = scoreboardWithClock;
-        this.timer = timer;
         colorProperty().setValue(color);
         digitHeightProperty().setValue(digitHeight);
         overallValueProperty().setValue(0);
@@ -602,7 +566,7 @@ public abstract class Clock extends DisplayableWithDigits {
         decimalPoint.setVisible(false);
 
         positionDigits();
-        getChildren().add(createKeyPads());
+        installKeyPadActions();
 
         /*
          * Set up Arrow Key Traversal
@@ -615,27 +579,5 @@ public abstract class Clock extends DisplayableWithDigits {
         tenSecondsDigit.setKeyRightNode(secondsDigit);
         secondsDigit.setKeyLeftNode(tenSecondsDigit);
         secondsDigit.setKeyRightNode(secondsDigit);
-
-        /*
-         * Set up the Timer handler.  A Timer instance is provided to this
-         * constructor.
-         */
-        FunctionPtr handler = new FunctionPtr() {
-            @Override
-            public void invoke() {
-                if (getOverallValue() > 0) {
-                    setOverallValue(getOverallValue()-1);
-                } else {
-                    getTimer().stop();
-                    if (Globals.instance().useHorn && 
-                            scoreboardWithClock != null) {
-                        scoreboardWithClock.soundHorn();
-                    }
-                }
-            }
-        };
-        if (timer != null) {
-            getTimer().addHandler(handler);
-        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.fx2.framework;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.jtconnors.scoreboard.common.LayoutXOptions;
+import com.jtconnors.scoreboard.common.ScoreboardInputInterface;
+
+/*
+ * ScoreboardInputInterface wrapper which, between calls to beginUpdates()
+ * and endUpdates(), holds on to variable updates instead of passing them on.
+ * Only the newest value of each variable is kept, and endUpdates() applies
+ * them in the order the variables were first updated.  Outside of that
+ * window, and for everything other than updateVariable(), calls go straight
+ * to the wrapped interface.
+ *
+ * Updates of a variable whose target isn't coalescible (see
+ * DisplayableWithDigits.isCoalescible()), like the horn, are never held:
+ * the updates held so far are applied, then this one, as the UpdateBatcher
+ * does on the master.  Every one of them is applied, in order.  The values
+ * of a snapshot (restoreVariable()) are passed on the same way.
+ *
+ * Used by remote displays so that a burst of messages drained from the
+ * FxUpdateQueue in one pulse results in at most one change per variable.
+ */
+public class CoalescingInputInterface implements ScoreboardInputInterface {
+
+    private final ScoreboardInputInterface target;
+    private final UpdateTargetRegistry<DisplayableWithDigits> updateTargets;
+    private final String[] names;
+    private final Map<String, Integer> nameToId = new HashMap<>();
+    private final int[] values;
+    private final boolean[] isPending;
+    private final int[] pendingOrder;
+    private int pendingCount;
+    private int supersededCount;
+    private boolean coalescing = false;
+
+    /**
+     * @param target the interface updates are passed on to
+     * @param names the update variable names, typically
+     * XMLSpec.UpdateVariableNames
+     * @param updateTargets the objects the variables update, consulted for
+     * whether their updates may be coalesced
+     */
+    public CoalescingInputInterface(ScoreboardInputInterface target,
+            List<String> names,
+            UpdateTargetRegistry<DisplayableWithDigits> updateTargets) {
+        this.target = target;
+        this.updateTargets = updateTargets;
+        this.names = names.toArray(new String[names.size()]);
+        for (int i = 0; i < this.names.length; i++) {
+            nameToId.put(this.names[i], i);
+        }
+        values = new int[this.names.length];
+        isPending = new boolean[this.names.length];
+        pendingOrder = new int[this.names.length];
+    }
+
+    public void beginUpdates() {
+        coalescing = true;
+    }
+
+    /**
+     * Apply the updates held since beginUpdates().
+     * @return the number of updates which were replaced by a newer value
+     * for the same variable, and therefore never applied.
+     */
+    public int endUpdates() {
+        coalescing = false;
+        applyPending();
+        int superseded = supersededCount;
+        supersededCount = 0;
+        return superseded;
+    }
+
+    @Override
+    public void updateVariable(String name, String overallValueStr) {
+        updateVariable(name, Integer.parseInt(overallValueStr));
+    }
+
+    @Override
+    public void updateVariable(String name, int overallValue) {
+        Integer id = coalescing ? nameToId.get(name) : null;
+        if (id == null) {
+            target.updateVariable(name, overallValue);
+            return;
+        }
+        DisplayableWithDigits updateTarget = updateTargets.get(name);
+        if (updateTarget != null && !updateTarget.isCoalescible()) {
+            applyPending();
+            target.updateVariable(name, overallValue);
+            return;
+        }
+        if (isPending[id]) {
+            supersededCount++;
+        } else {
+            isPending[id] = true;
+            pendingOrder[pendingCount++] = id;
+        }
+        values[id] = overallValue;
+    }
+
+    @Override
+    public void restoreVariable(String name, String valueStr) {
+        applyPending();
+        target.restoreVariable(name, valueStr);
+    }
+
+    private void applyPending() {
+        for (int i = 0; i < pendingCount; i++) {
+            int id = pendingOrder[i];
+            isPending[id] = false;
+            target.updateVariable(names[id], values[id]);
+        }
+        pendingCount = 0;
+    }
+
+    @Override
+    public void setupTextNode(String name, double layoutY,
+            LayoutXOptions layoutXoption, String alignWithStr,
+            double fontSize, String content) {
+        target.setupTextNode(name, layoutY, layoutXoption, alignWithStr,
+                fontSize, content);
+    }
+
+    @Override
+    public void setupDisplayableWithDigits(String name, double layoutY,
+            LayoutXOptions layoutXoption, String alignWithStr,
+            double digitHeight, int overallValue) {
+        target.setupDisplayableWithDigits(name, layoutY, layoutXoption,
+                alignWithStr, digitHeight, overallValue);
+    }
+
+    @Override
+    public void setupScoreboard(String name, int backgroundColorVal) {
+        target.setupScoreboard(name, backgroundColorVal);
+    }
+
+    @Override
+    public void setupImageView(String name, String url,
+            LayoutXOptions layoutXoption,
+            String topLeftObjStr, String bottomRightObjStr) {
+        target.setupImageView(name, url, layoutXoption, topLeftObjStr,
+                bottomRightObjStr);
+    }
+
+    @Override
+    public void resolveXlocations() {
+        target.resolveXlocations();
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.fx2.framework;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/*
+ * Maps configuration variable names (XMLSpec.ConfigVariableNames) to
+ * accessors for the scoreboard variables they configure.
+ *
+ * The scoreboard registers an explicit getter, and where a remote display
+ * needs to replace the object, a setter, for each variable when it is
+ * initialized.  Dumping the configuration (XMLOutput) and loading it on a
+ * remote display (XMLInput via ScoreboardInputInterface) then go through
+ * these accessors rather than looking up and invoking Fields and Methods
+ * reflectively.
+ */
+public class ConfigVariableRegistry {
+
+    private static class ConfigVariable {
+        private final String type;
+        private final Supplier<Object> getter;
+        private final Consumer<Object> setter;
+
+        private ConfigVariable(String type, Supplier<Object> getter,
+                Consumer<Object> setter) {
+            this.type = type;
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+
+    private final Map<String, ConfigVariable> variables =
+            new LinkedHashMap<>();
+
+    /*
+     * Register a variable which is only ever read.  The type is one of the
+     * TYPE_ constants from XMLSpec or its subclass.
+     */
+    public void register(String name, String type, Supplier<Object> getter) {
+        register(name, type, getter, null);
+    }
+
+    public void register(String name, String type, Supplier<Object> getter,
+            Consumer<Object> setter) {
+        variables.put(name, new ConfigVariable(type, getter, setter));
+    }
+
+    public boolean contains(String name) {
+        return name != null && variables.containsKey(name);
+    }
+
+    /**
+     * @return the TYPE_ constant the named variable was registered with,
+     * or null if there is no such variable.
+     */
+    public String getType(String name) {
+        ConfigVariable variable = lookup(name);
+        return variable == null ? null : variable.type;
+    }
+
+    /**
+     * @return the current value of the named variable, or null if there
+     * is no such variable.
+     */
+    public Object get(String name) {
+        ConfigVariable variable = lookup(name);
+        return variable == null ? null : variable.getter.get();
+    }
+
+    public void set(String name, Object value) {
+        ConfigVariable variable = lookup(name);
+        if (variable == null || variable.setter == null) {
+            throw new IllegalArgumentException(
+                    "Not a settable config variable: " + name);
+        }
+        variable.setter.accept(value);
+    }
+
+    /**
+     * @return the name of the variable currently referring to obj, or null
+     * if none does.
+     */
+    public String getName(Object obj) {
+        if (obj != null) {
+            for (Map.Entry<String, ConfigVariable> entry :
+                    variables.entrySet()) {
+                if (entry.getValue().getter.get() == obj) {
+                    return entry.getKey();
+                }
+            }
+        }
+        return null;
+    }
+
+    private ConfigVariable lookup(String name) {
+        return name == null ? null : variables.get(name);
+    }
+}
@@ -127,11 +127,7 @@ public abstract class Digit extends FocusableParent {
 
     public final void setValue(int value) {
         valueProperty().setValue(value);
-        if ((value == 0) && (isBlankIfZero())) {
-            refreshOnValueChange(Constants.instance().BLANK_DIGIT);
-        } else {
-            refreshOnValueChange(value);
-        }
+        refreshDisplayedValue();
     }
 
     public final int getValue() {
@@ -165,13 +161,7 @@ public abstract class Digit extends FocusableParent {
 
     public final void setBlankIfZero(boolean value) {
         blankIfZeroProperty().setValue(value);
-        if (getValue() == 0) {
-            if (value) {
-                refreshOnValueChange(Constants.instance().BLANK_DIGIT);
-            } else {
-                refreshOnValueChange(0);
-            }
-        }
+        refreshDisplayedValue();
     }
 
     public final boolean isBlankIfZero() {
@@ -196,6 +186,31 @@ public abstract class Digit extends FocusableParent {
         return blankIfZero;
     }
 
+    /*
+     * The value last passed to refreshOnValueChange(): BLANK_DIGIT when a
+     * zero is blanked, otherwise getValue().  NOT_DISPLAYED until the
+     * first update, so that it always gets through.  Implementations
+     * display the same value whenever they rebuild themselves, e.g. on a
+     * digitHeight change, so it stays valid across those.
+     */
+    private static final int NOT_DISPLAYED = -1;
+    private int displayedValue = NOT_DISPLAYED;
+
+    /*
+     * Call refreshOnValueChange() only if the value or blankIfZero change
+     * what is displayed.
+     */
+    private void refreshDisplayedValue() {
+        int newDisplayedValue = (getValue() == 0 && isBlankIfZero()) ?
+                Constants.instance().BLANK_DIGIT : getValue();
+        boolean skip = newDisplayedValue == displayedValue;
+        DigitUpdateStats.instance().countUpdate(skip);
+        if (!skip) {
+            displayedValue = newDisplayedValue;
+            refreshOnValueChange(newDisplayedValue);
+        }
+    }
+
     /**
      * When part of a string of Digits, the incrementValue variable determines
      * how much the overall value of the number representing the digits is
@@ -259,11 +274,28 @@ public abstract class Digit extends FocusableParent {
      */
     protected KeyPad normalKeyPad = null;
     protected KeyPad alternateKeyPad = null;
+    /*
+     * The object this Digit belongs to, which creates its KeyPad on demand
+     */
+    private DisplayableWithDigits keyPadOwner;
+
+    void setKeyPadOwner(DisplayableWithDigits keyPadOwner) {
+        this.keyPadOwner = keyPadOwner;
+    }
     /*
      * This method is called whenever this instance is in focus
      * and either the user (1) mouse clicks (2) types a keyboard <ENTER>
      */
     public void displayKeyPad() {
+        if (keyPad == null) {
+            if (keyPadOwner == null) {
+                return;
+            }
+            keyPad = keyPadOwner.attachKeyPad(this);
+            if (keyPad == null) {
+                return;
+            }
+        }
         keyPad.setLayoutX(getLayoutX() + (getLayoutBounds().getWidth() -
              keyPad.getLayoutBounds().getWidth()) / 2);
         keyPad.setLayoutY(getLayoutY() + (getLayoutBounds().getHeight() -
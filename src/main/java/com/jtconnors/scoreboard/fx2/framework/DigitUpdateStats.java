@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.fx2.framework;
+
+/*
+ * Counters measuring how much work Digit updates cause:
+ *   - updates: calls to Digit.setValue() or Digit.setBlankIfZero()
+ *   - skippedUpdates: those which left the displayed value unchanged and
+ *     so did no work at all
+ *   - mutations: the bulbs, segments or images actually changed by the
+ *     digit implementations as a result
+ *
+ * It follows the Singleton design pattern.  Digits are only updated on the
+ * JavaFX thread, so the counters are plain fields.
+ */
+public class DigitUpdateStats {
+    private DigitUpdateStats() {}
+
+    private static class LazyHolder {
+        private static final DigitUpdateStats INSTANCE =
+                new DigitUpdateStats();
+    }
+
+    public static DigitUpdateStats instance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    private long updates;
+    private long skippedUpdates;
+    private long mutations;
+
+    void countUpdate(boolean skipped) {
+        updates++;
+        if (skipped) {
+            skippedUpdates++;
+        }
+    }
+
+    public void countMutations(int count) {
+        mutations += count;
+    }
+
+    public long getUpdates() {
+        return updates;
+    }
+
+    public long getSkippedUpdates() {
+        return skippedUpdates;
+    }
+
+    public long getMutations() {
+        return mutations;
+    }
+
+    public void reset() {
+        updates = 0;
+        skippedUpdates = 0;
+        mutations = 0;
+    }
+}
@@ -50,6 +50,7 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.paint.Color;
 import com.jtconnors.scoreboard.common.Constants;
 import com.jtconnors.scoreboard.common.DigitsDisplayStates;
+import com.jtconnors.scoreboard.common.ScoreboardState;
 
 /*
  * DisplayableWithDigits encapsulates the common behavior that classes with one
@@ -183,16 +184,15 @@ public abstract class DisplayableWithDigits extends Displayable {
     private DoubleProperty digitHeight;
 
     protected void refreshOnDigitHeightChange(double value) {
+        /*
+         * KeyPads are sized to the digits, drop them and let each be
+         * recreated at the new size when it is next displayed.
+         */
+        discardKeyPads();
         for (Digit digit : digitArr) {
             digit.setDigitHeight(value);
         }
         positionDigits();
-        for (final Digit d : digitArr) {
-            if (d.keyPad != null) {
-                getChildren().remove(d.keyPad);
-            }
-        }
-        getChildren().add(createKeyPads());
     }
 
     public final void setDigitHeight(double value) {
@@ -327,7 +327,47 @@ public abstract class DisplayableWithDigits extends Displayable {
      * overriden.
      */
     public void setOverallValueViaUpdate(String overallValueStr) {
-        setOverallValue(Integer.parseInt(overallValueStr));
+        setOverallValueViaUpdate(Integer.parseInt(overallValueStr));
+    }
+
+    public void setOverallValueViaUpdate(int overallValue) {
+        setOverallValue(overallValue);
+    }
+
+    /*
+     * Set while applyState() runs
+     */
+    private boolean applyingState;
+
+    /*
+     * Display a value taken from the ScoreboardState.  The state has it
+     * already, so sendMessageToSocket() doesn't write it back there.
+     */
+    public final void applyState(int value) {
+        applyingState = true;
+        try {
+            setOverallValueViaUpdate(value);
+        } finally {
+            applyingState = false;
+        }
+    }
+
+    /*
+     * Restore what getSnapshotValueStr() returned on the master.  Often
+     * that is what is displayed already, in which case nothing is done.
+     */
+    public void setOverallValueViaSnapshot(String valueStr) {
+        int value = Integer.parseInt(valueStr);
+        if (value != getOverallValue()) {
+            setOverallValueViaUpdate(value);
+        }
+    }
+
+    /*
+     * The value to put in a snapshot (see SnapshotPublisher)
+     */
+    public String getSnapshotValueStr() {
+        return String.valueOf(getOverallValue());
     }
     
     private int prevOverallValue;
@@ -344,17 +384,82 @@ public abstract class DisplayableWithDigits extends Displayable {
     
     /*
      * This method gets called by all DisplayableWithDigits instances that
-     * want to send update message on to a socket.
+     * want to send update message on to a socket.  If the variable is part
+     * of the ScoreboardState, the value is written there and the state's
+     * listeners (see UpdateSender) do the sending, unless it came from the
+     * state in the first place (see applyState()).  Otherwise it is sent
+     * directly.
      */
     public void sendMessageToSocket(String varName, String valueStr) {
-        String msg = XMLSpec.updateStr(varName, valueStr);
+        ScoreboardState scoreboardState = Globals.instance().scoreboardState;
+        if (scoreboardState != null && scoreboardState.contains(varName)) {
+            if (!applyingState) {
+                scoreboardState.set(varName, Integer.parseInt(valueStr),
+                        this);
+            }
+        } else {
+            sendUpdate(varName, valueStr, isCoalescible());
+        }
+    }
+
+    /*
+     * With -BatchUpdates, the update is handed to the UpdateBatcher instead
+     * of being sent right away, unless it is not coalescible.
+     */
+    static void sendUpdate(String varName, String valueStr,
+            boolean coalescible) {
+        UpdateBatcher updateBatcher = FxGlobals.instance().updateBatcher;
+        if (updateBatcher != null) {
+            if (coalescible) {
+                updateBatcher.add(varName, valueStr);
+                return;
+            }
+            updateBatcher.flush();
+        }
+        postUpdate(encodeUpdate(varName, valueStr));
+    }
+
+    /*
+     * Whether an update may be merged with, and replaced by, a later update
+     * of the same variable.  Subclasses whose updates are events rather
+     * than state, like the Horn, return false.
+     */
+    protected boolean isCoalescible() {
+        return true;
+    }
+
+    /*
+     * Encode a single update in the format selected by -UpdateFormat.
+     */
+    static String encodeUpdate(String varName, String valueStr) {
+        String msg = null;
+        if (Globals.instance().binaryUpdates &&
+                FxGlobals.instance().binaryUpdateCodec != null) {
+            msg = FxGlobals.instance().binaryUpdateCodec.encode(varName,
+                    Integer.parseInt(valueStr));
+        }
+        if (msg == null) {
+            msg = XMLSpec.updateStr(varName, valueStr);
+        }
+        return msg;
+    }
+
+    /*
+     * Send an encoded update on whichever socket is in use.  With
+     * -TimestampUpdates, the time it was sent is prepended so that remote
+     * displays can measure their latency (see RenderStats).
+     */
+    static void postUpdate(String msg) {
+        if (Globals.instance().timestampUpdates) {
+            msg = RenderStats.stamp(msg);
+        }
         if ((Globals.instance().debugFlags & 
                 Constants.instance().DEBUG_XMLOUTPUT) != 0) {
             LOGGER.info(msg); 
         }
         if (Globals.instance().useIPSocket) {
-            if (FxGlobals.instance().multipleSocketWriter != null) {
-                FxGlobals.instance().multipleSocketWriter.postUpdate(msg);
+            if (FxGlobals.instance().broadcastServer != null) {
+                FxGlobals.instance().broadcastServer.postUpdate(msg);
             }
         } else {
             if (FxGlobals.instance().multicastWriter != null) {
@@ -363,12 +468,78 @@ public abstract class DisplayableWithDigits extends Displayable {
         }
     }
 
+    /*
+     * Holds the KeyPads of this object's Digits.  A KeyPad is only created
+     * the first time its Digit displays it (see Digit.displayKeyPad()),
+     * so this stays null until the user asks for one.
+     */
+    private Group keyPadGroup;
+
+    /*
+     * Called by subclasses once their Digits are in digitArr.  Mouse
+     * clicking a Digit displays its KeyPad.
+     */
+    protected void installKeyPadActions() {
+        for (final Digit d : digitArr) {
+            d.setKeyPadOwner(this);
+            d.setAction(d::displayKeyPad);
+        }
+    }
+
+    /*
+     * Creates and adds the KeyPad for digit.  Returns null if KeyPads are
+     * disabled (i.e. on a remote display) or digit doesn't have one.
+     */
+    KeyPad attachKeyPad(Digit digit) {
+        if (!FxGlobals.instance().keyPadsEnabled) {
+            return null;
+        }
+        KeyPad keyPad = createKeyPad(digit);
+        if (keyPad == null) {
+            return null;
+        }
+        keyPad.setVisible(false);
+        if (keyPadGroup == null) {
+            keyPadGroup = new Group();
+            getChildren().add(keyPadGroup);
+        }
+        keyPadGroup.getChildren().add(keyPad);
+        return keyPad;
+    }
+
+    protected void discardKeyPads() {
+        if (keyPadGroup != null) {
+            getChildren().remove(keyPadGroup);
+            keyPadGroup = null;
+        }
+        for (Digit d : digitArr) {
+            d.keyPad = null;
+            d.normalKeyPad = null;
+            d.alternateKeyPad = null;
+        }
+    }
+
+    /*
+     * Sizes boundingRect to the extent of the other children.  boundingRect
+     * is collapsed first so that its size from a previous layout isn't
+     * measured along with them.
+     */
+    protected void fitBoundingRect() {
+        boundingRect.setWidth(0);
+        boundingRect.setHeight(0);
+        boundingRect.setWidth(getLayoutBounds().getWidth());
+        boundingRect.setHeight(getLayoutBounds().getHeight());
+    }
+
     /********************************************************************
      * The following abstract methods must be defined by implementing   *
      * subclasses.                                                      *
      ********************************************************************/
 
-    protected abstract Group createKeyPads();
+    /*
+     * Returns a new KeyPad for digit, or null if it doesn't have one.
+     */
+    protected abstract KeyPad createKeyPad(Digit digit);
 
     protected abstract void positionDigits();
 
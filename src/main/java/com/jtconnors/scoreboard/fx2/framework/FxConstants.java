@@ -63,8 +63,49 @@ public class FxConstants {
      */
     public final Duration ONE_TENTH_SECOND = Duration.millis(100);
     public final Duration ONE_SECOND = Duration.millis(1000);
+    /*
+     * Quiet period after the last window resize event before the
+     * scoreboard is rescaled (see FXUtils.scaleToFitScene())
+     */
+    public final Duration RESIZE_DEBOUNCE = Duration.millis(150);
+    /*
+     * How often a multicast master sends a snapshot of all the update
+     * variables, so that remote displays recover from lost datagrams
+     */
+    public final Duration MULTICAST_HEARTBEAT_INTERVAL = Duration.millis(1000);
+    /*
+     * How long a remote display waits for a connection to the master, and
+     * the shortest and longest delays before it tries again
+     */
+    public final Duration SOCKET_CONNECT_TIMEOUT = Duration.millis(5000);
+    public final Duration RECONNECT_INITIAL_DELAY = Duration.millis(500);
+    public final Duration RECONNECT_MAX_DELAY = Duration.millis(30000);
+    /*
+     * How long quitting waits for the networking threads to finish
+     */
+    public final Duration NETWORK_SHUTDOWN_TIMEOUT = Duration.millis(2000);
     // 9 minutes 59 seconds in second increments
     public final int MAX_PENALTY_TIME = 599;
     // 99 minutes, 59.9 seconds in tenth of second increments
     public final int MAX_CLOCK_TIME = 59999;
+    /*
+     * Maximum number of received update messages waiting for the JavaFX
+     * thread (see FxUpdateQueue)
+     */
+    public final int UPDATE_QUEUE_CAPACITY = 1024;
+    /*
+     * Most bytes of update messages held for a remote display which isn't
+     * keeping up, before its backlog is dropped (see BroadcastServer)
+     */
+    public final int BROADCAST_MAX_QUEUED_BYTES = 64 * 1024;
+    /*
+     * Maximum number of entries kept by the rendering caches: digit glyph
+     * images (see GlyphCache) and bulb images and gradients (see
+     * scoreboard.fx2.impl.canvas.BulbSprites and
+     * scoreboard.fx2.impl.bulb.Bulb) and LED segment paths (see
+     * scoreboard.fx2.impl.led.SegmentGeometry)
+     */
+    public final int GLYPH_CACHE_SIZE = 256;
+    public final int BULB_CACHE_SIZE = 64;
+    public final int SEGMENT_CACHE_SIZE = 32;
 }
@@ -32,8 +32,9 @@ package com.jtconnors.scoreboard.fx2.framework;
 
 import com.jtconnors.scoreboard.fx2.networking.FxMulticastReader;
 import com.jtconnors.scoreboard.fx2.networking.FxMulticastWriter;
-import com.jtconnors.scoreboard.fx2.networking.FxMultipleSocketWriter;
+import com.jtconnors.scoreboard.fx2.networking.FxBroadcastServer;
 import com.jtconnors.scoreboard.fx2.networking.FxSocketReader;
+import com.jtconnors.scoreboard.fx2.networking.FxUpdateQueue;
 
 /*
  * Global variables that are JavaFX 2.x specific
@@ -64,12 +65,33 @@ public class FxGlobals {
     public FxMulticastReader multicastReader;
     
     /*
-     * IP socket to send XML updates over
+     * Server sending updates to remote displays over IP sockets
      */
-    public FxMultipleSocketWriter multipleSocketWriter;
+    public FxBroadcastServer broadcastServer;
     
     /*
      * IP socket to send XML updates over
      */
     public FxSocketReader socketReader;   
+
+    /*
+     * Queue that socket and multicast readers hand received updates to
+     */
+    public FxUpdateQueue updateQueue;
+
+    /*
+     * Encoder for outgoing updates when Globals.binaryUpdates is set
+     */
+    public BinaryUpdateCodec binaryUpdateCodec;
+
+    /*
+     * Per-pulse batcher for outgoing updates when Globals.batchUpdates is set
+     */
+    public UpdateBatcher updateBatcher;
+
+    /*
+     * Cleared on remote displays, which block all input, so that no KeyPads
+     * are ever created there
+     */
+    public boolean keyPadsEnabled = true;
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.fx2.framework;
+
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import com.jtconnors.scoreboard.common.Globals;
+
+/*
+ * Shared cache of digit glyphs: for a GlyphStyle, color, digit height and
+ * unlit opacity, an image of each value 0-9 plus blank.  Each glyph is
+ * rendered once, by taking a snapshot of a node created by the style, so
+ * a GlyphDigit changing value just switches images.  The least recently
+ * used glyphs are dropped once FxConstants.GLYPH_CACHE_SIZE are held.
+ *
+ * It follows the Singleton design pattern.  Glyphs are rendered with
+ * Node.snapshot(), so it must only be used on the JavaFX thread.
+ */
+public class GlyphCache {
+    private GlyphCache() {}
+
+    private static class LazyHolder {
+        private static final GlyphCache INSTANCE = new GlyphCache();
+    }
+
+    public static GlyphCache instance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    private final LruCache<String, Image> glyphs =
+            new LruCache<>(FxConstants.instance().GLYPH_CACHE_SIZE);
+    private long hitCount;
+    private long missCount;
+
+    public Image get(GlyphStyle style, Color color, double digitHeight,
+            int value) {
+        String key = style.getName() + ":" + color + ":" + digitHeight +
+                ":" + Globals.instance().unlitOpacity + ":" + value;
+        Image glyph = glyphs.get(key);
+        if (glyph == null) {
+            missCount++;
+            glyph = render(style.createGlyph(color, digitHeight, value));
+            glyphs.put(key, glyph);
+        } else {
+            hitCount++;
+        }
+        return glyph;
+    }
+
+    private Image render(Node node) {
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.TRANSPARENT);
+        return node.snapshot(params, null);
+    }
+
+    public int size() {
+        return glyphs.size();
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public void clear() {
+        glyphs.clear();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.fx2.framework;
+
+import javafx.scene.image.ImageView;
+import javafx.scene.paint.Color;
+import com.jtconnors.scoreboard.common.Constants;
+
+/*
+ * A Digit displayed as a single image from the GlyphCache, in the look of
+ * its GlyphStyle.  Changing the value, color or height of the digit
+ * switches to another cached image rather than updating or rebuilding
+ * the shapes that make up a digit.
+ */
+public class GlyphDigit extends Digit {
+
+    /*
+     * Abstract methods from Digit that must be defined.
+     */
+    @Override
+    protected void refreshOnColorChange(Color color) {
+        showGlyph();
+    }
+
+    @Override
+    protected void refreshOnDigitHeightChange(double digitHeight) {
+        showGlyph();
+    }
+
+    @Override
+    protected void refreshOnValueChange(int value) {
+        displayValue = value;
+        showGlyph();
+    }
+
+    /*
+     * Implementation variables
+     */
+    private final GlyphStyle glyphStyle;
+    private final ImageView imageView;
+    /*
+     * Value shown: getValue(), or BLANK_DIGIT if blanked
+     */
+    private int displayValue;
+
+    /*
+     * Constructors and helpers
+     */
+    public GlyphDigit(GlyphStyle glyphStyle) {
+        this(glyphStyle, FxConstants.instance().DEFAULT_DIGIT_COLOR,
+                Constants.instance().DEFAULT_DIGIT_HEIGHT, 0,
+                Constants.instance().MIN_DIGIT_VALUE,
+                Constants.instance().MAX_DIGIT_VALUE);
+    }
+
+    public GlyphDigit(GlyphStyle glyphStyle, Color digitColor,
+            double digitHeight) {
+        this(glyphStyle, digitColor, digitHeight, 0,
+                Constants.instance().MIN_DIGIT_VALUE,
+                Constants.instance().MAX_DIGIT_VALUE);
+    }
+
+    public GlyphDigit(GlyphStyle glyphStyle, Color digitColor,
+            double digitHeight, int value, int minValue, int maxValue) {
+        super(digitColor, digitHeight, value, minValue, maxValue);
+        this.glyphStyle = glyphStyle;
+        displayValue = value;
+        imageView = new ImageView();
+        getChildren().add(imageView);
+        showGlyph();
+    }
+
+    public GlyphStyle getGlyphStyle() {
+        return glyphStyle;
+    }
+
+    private void showGlyph() {
+        DigitUpdateStats.instance().countMutations(1);
+        imageView.setImage(GlyphCache.instance().get(glyphStyle, getColor(),
+                getDigitHeight(), displayValue));
+    }
+}
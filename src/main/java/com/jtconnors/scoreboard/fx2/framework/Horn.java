@@ -36,7 +36,6 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import javafx.scene.Group;
 import javafx.scene.input.KeyCode;
 import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
@@ -70,7 +69,7 @@ public class Horn extends DisplayableWithDigits {
  ****************************************************************************/
 
     @Override
-    protected Group createKeyPads() {
+    protected KeyPad createKeyPad(Digit digit) {
         return null;
     }
 
@@ -101,6 +100,15 @@ public class Horn extends DisplayableWithDigits {
  *           End DisplayableWithDigits method definition section            *
  ****************************************************************************/
 
+    /*
+     * Turning the horn on or off is an event, it must never be merged
+     * with another update by the UpdateBatcher.
+     */
+    @Override
+    protected boolean isCoalescible() {
+        return false;
+    }
+
     /*
      * Constructors
      */
@@ -32,10 +32,8 @@
 package com.jtconnors.scoreboard.fx2.framework;
 
 import com.jtconnors.scoreboard.common.Globals;
-import java.lang.reflect.Field;
 import javafx.beans.InvalidationListener;
 import javafx.beans.Observable;
-import javafx.scene.Group;
 import javafx.scene.control.Tooltip;
 import javafx.scene.input.KeyCode;
 import javafx.scene.paint.Color;
@@ -79,21 +77,9 @@ public abstract class Penalty extends DisplayableWithDigits {
      * object via getPlayerNumber(), so that, for example, someone can
      * set the color of the playerNumber digits to a color different than
      * penalty timer digits.
-     * 
-     * Note: playerNumber is decalred public so that we can perform
-     * reflection on it.  This is needed for receiving XML penalty player
-     * number updates.
      */
     public TwoDigit playerNumber;
     public TwoDigit getPlayerNumber() { return playerNumber; }
-    public Field getPlayerNumberField() {
-        try {
-            return getClass().getField("playerNumber");
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return null;
-    }
 
     /*
      * This is a bit of a kludge.  When using the keyboard right arrow key to
@@ -123,20 +109,6 @@ public abstract class Penalty extends DisplayableWithDigits {
      */
     protected Digit secondsDigit;
 
-    /**
-     * A Timer instance must be provided to this class at
-     * instantiation time.  The resolution of the timer is in tenths of
-     * seconds.  The visible resolution of the timer is in seconds.  The
-     * number of seconds remaining in the penalty timer is stored in the
-     * overallValue variable, inherited from the DisplayableWithDigits class.
-     */
-    private int tenthsRemaining;
-    protected Timer timer;
-
-    public Timer getTimer() {
-        return timer;
-    }
-
     /*
      * When a penalty is active, a dash ("-") is displayed between
      * the player number assigned the infraction and the penalty timer.
@@ -149,11 +121,13 @@ public abstract class Penalty extends DisplayableWithDigits {
     
     /*
      * Visual cue via popup to let user know that the Penalty player
-     * number cannot be set until a penalty time is specified.
+     * number cannot be set until a penalty time is specified.  A Tooltip
+     * needs the JavaFX toolkit, so it is only created once the Penalty is
+     * part of a Scene; until then (e.g. in a benchmark) it isn't needed.
      */
     private final String tipStr = 
             "Penalty time must be\nset prior to player number";
-    private final Tooltip tooltip = new Tooltip(tipStr);
+    private Tooltip tooltip;
     /*
      * Mechanism to block playerNumber when not in use.
      */
@@ -166,33 +140,15 @@ public abstract class Penalty extends DisplayableWithDigits {
  ****************************************************************************/
 
     /*
-     * Creates the KeyPads associated with the Penalty Timer Digits.  The
-     * playerNumber Digits will be created by the TwoDigits createKeyPads()
+     * Creates the KeyPad for one of the Penalty Timer Digits.  The
+     * playerNumber Digits get theirs from the TwoDigit createKeyPad()
      * method.
      */
     @Override
-    protected Group createKeyPads() {
-        Group group = new Group();
-        minutesDigit.keyPad = new KeyPad(
-                minutesDigit.getLayoutBounds().getWidth(),
-                0, 9, minutesDigit, (DisplayableWithDigits)this);
-        tenSecondsDigit.keyPad = new KeyPad(
-                tenSecondsDigit.getLayoutBounds().getWidth(),
-                0, 5, tenSecondsDigit, (DisplayableWithDigits)this);
-        secondsDigit.keyPad = new KeyPad(
-                secondsDigit.getLayoutBounds().getWidth(),
-                0, 9, secondsDigit, (DisplayableWithDigits)this);
-        for (final Digit d : digitArr) {
-            d.keyPad.setVisible(false);
-            d.setAction(new FunctionPtr() {
-                @Override
-                public void invoke() {
-                    d.displayKeyPad();
-                }
-            });
-            group.getChildren().add(d.keyPad);
-        }
-        return group;
+    protected KeyPad createKeyPad(Digit digit) {
+        int maxValue = (digit == tenSecondsDigit) ? 5 : 9;
+        return new KeyPad(digit.getLayoutBounds().getWidth(), 0, maxValue,
+                digit, (DisplayableWithDigits)this);
     }
 
     /*
@@ -202,7 +158,19 @@ public abstract class Penalty extends DisplayableWithDigits {
      */
     @Override
     protected void positionDigits() {
-        getChildren().clear();
+        if (getChildren().isEmpty()) {
+            /*
+             * Mechanism to block input to player number when not in use
+             */
+            playerNumberMouseBlocker = new Rectangle();
+            playerNumberMouseBlocker.setFill(Color.TRANSPARENT);
+            playerNumberMouseBlocker.setVisible(false);
+            boundingRect.setFill(Color.TRANSPARENT);
+            getChildren().addAll(playerNumber, dash,
+                    minutesDigit, tenSecondsDigit, secondsDigit,
+                    bottomPartOfColon, topPartOfColon,
+                    playerNumberMouseBlocker, boundingRect);
+        }
 
         playerNumber.setDigitHeight(getDigitHeight());
         double digitWidth =
@@ -236,25 +204,12 @@ public abstract class Penalty extends DisplayableWithDigits {
         secondsDigit.setLayoutX(tenSecondsDigit.getLayoutX() +
                 digitWidth + (Constants.instance().INTER_DIGIT_GAP_FRACTION *
                 digitWidth));
-        /*
-         * Mechanism to block input to player number when not in use
-         */
-        playerNumberMouseBlocker = new Rectangle();
         playerNumberMouseBlocker.setWidth(
                 playerNumber.getLayoutBounds().getWidth());
         playerNumberMouseBlocker.setHeight(
                 playerNumber.getLayoutBounds().getHeight());
-        playerNumberMouseBlocker.setFill(Color.TRANSPARENT);
-        playerNumberMouseBlocker.setVisible(false);
 
-        getChildren().addAll(playerNumber, dash,
-                minutesDigit, tenSecondsDigit, secondsDigit,
-                bottomPartOfColon, topPartOfColon, playerNumberMouseBlocker);
-
-        boundingRect.setWidth(getLayoutBounds().getWidth());
-        boundingRect.setHeight(getLayoutBounds().getHeight());
-        boundingRect.setFill(Color.TRANSPARENT);
-        getChildren().add(boundingRect);
+        fitBoundingRect();
         
         componentWidth = boundingRect.getWidth();
         componentHeight = boundingRect.getHeight();
@@ -262,7 +217,6 @@ public abstract class Penalty extends DisplayableWithDigits {
 
     @Override
     protected void refreshOnOverallValueChange(int overallValue) {
-        tenthsRemaining = overallValue * 10;
         setDigits();
         sendMessageToSocket(varName, String.valueOf(overallValue));
     }
@@ -331,26 +285,23 @@ public abstract class Penalty extends DisplayableWithDigits {
     /*
      * Constructors
      */
-    public Penalty(String varName, Timer timer) {
-        this(varName, timer, FxConstants.instance().DEFAULT_DIGIT_COLOR,
+    public Penalty(String varName) {
+        this(varName, FxConstants.instance().DEFAULT_DIGIT_COLOR,
                 Constants.instance().DEFAULT_DIGIT_HEIGHT);
     }
 
-    public Penalty(String varName, Timer timer, Color color) {
-        this(varName, timer, color,
-                Constants.instance().DEFAULT_DIGIT_HEIGHT);
+    public Penalty(String varName, Color color) {
+        this(varName, color, Constants.instance().DEFAULT_DIGIT_HEIGHT);
     }
 
-    public Penalty(String varName, Timer timer, double digitHeight) {
-        this(varName, timer, FxConstants.instance().DEFAULT_DIGIT_COLOR,
+    public Penalty(String varName, double digitHeight) {
+        this(varName, FxConstants.instance().DEFAULT_DIGIT_COLOR,
                 digitHeight);
     }
 
-    public Penalty(String varName, Timer timer, Color color,
-            double digitHeight) {
+    public Penalty(String varName, Color color, double digitHeight) {
         super();  // Must call superclass constructor first
         this.varName = varName;
-        this.timer = timer;
         colorProperty().setValue(color);
         digitHeightProperty().setValue(digitHeight);
         overallValueProperty().setValue(0);
@@ -386,11 +337,17 @@ public abstract class Penalty extends DisplayableWithDigits {
         playerNumber.setAllowTrailingZeroes(true);
         playerNumber.setDigitsDisplayState(DigitsDisplayStates.BLANK);
         positionDigits();
-        Tooltip.install(playerNumberMouseBlocker, tooltip);
+        playerNumberMouseBlocker.sceneProperty().addListener(
+                (observable, oldScene, newScene) -> {
+            if (newScene != null && tooltip == null) {
+                tooltip = new Tooltip(tipStr);
+                Tooltip.install(playerNumberMouseBlocker, tooltip);
+            }
+        });
         playerNumberMouseBlocker.setVisible(true);
         setDigits();
 
-        getChildren().add(createKeyPads());
+        installKeyPadActions();
 
         /*
          * Set up Arrow Key Traversals.  Insert the transitionKludge
@@ -407,33 +364,12 @@ public abstract class Penalty extends DisplayableWithDigits {
         secondsDigit.setKeyLeftNode(tenSecondsDigit);
         secondsDigit.setKeyRightNode(secondsDigit);
 
-        /*
-         * Set up the Timer handler.  A Timer instance is provided to this
-         * constructor.
-         */
-        FunctionPtr handler = new FunctionPtr() {
-            @Override
-            public void invoke() {
-                if (tenthsRemaining > 0) {
-                    tenthsRemaining -= 1;
-                    if (tenthsRemaining == 0) {
-                        playerNumber.setDigitsDisplayState(
-                            DigitsDisplayStates.BLANK);
-                        getTimer().stop();
-                    }
-                    if ((tenthsRemaining % 10) == 0) {
-                        setOverallValue(tenthsRemaining / 10);
-                    }
-                } 
-            }
-        };
-        if (timer != null) {
-            getTimer().addHandler(handler);
-        }
-
         /*
          * Listen in on any updates to the Penalty overallValue variable.
-         * When it transitions to/from zero, change the display state.
+         * When it transitions to/from zero, change the display state.  A
+         * penalty running out also blanks the player number; this is the
+         * only place that happens, so a master without a user interface
+         * leaves the player number as it was.
          */
         overallValueProperty().addListener(new InvalidationListener() {
             @Override
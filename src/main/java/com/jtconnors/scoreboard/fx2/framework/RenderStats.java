@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.fx2.framework;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.animation.AnimationTimer;
+import com.jtconnors.scoreboard.common.CountdownEngine;
+import com.jtconnors.scoreboard.common.Globals;
+import com.jtconnors.scoreboard.fx2.networking.FxMulticastReader;
+import com.jtconnors.scoreboard.fx2.networking.FxUpdateQueue;
+
+/*
+ * Frame timing and update pipeline statistics, enabled by -DisplayStats.
+ * Once a second the following are summarized, shown by the scoreboard's
+ * stats overlay and, with -StatsLog, appended to a CSV file:
+ *   - pulses per second, and percentiles of the time between pulses
+ *   - number of handleUpdate() calls and time spent in them
+ *   - backlog of received updates waiting for the JavaFX thread, either
+ *     in Platform.runLater() or in the FxUpdateQueue
+ *   - latency from a master sending an update to the first pulse after a
+ *     remote display has applied it, for updates carrying a timestamp
+ *     (see -TimestampUpdates)
+ *   - CountdownEngine tick jitter, and the DigitUpdateStats and GlyphCache counters
+ *   - on a multicast remote display, updates received, lost in transit
+ *     and dropped for arriving out of order
+ *
+ * Latency is measured with the wall clocks of two machines, so it is only
+ * meaningful if they are synchronized (e.g. NTP), or when the master and
+ * remote display run on the same machine.
+ *
+ * It follows the Singleton design pattern.  Apart from the runLater
+ * backlog, which is counted from the reader threads, it is only used on
+ * the JavaFX thread.
+ */
+public class RenderStats {
+    private RenderStats() {}
+
+    private static class LazyHolder {
+        private static final RenderStats INSTANCE = new RenderStats();
+    }
+
+    public static RenderStats instance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    private final static Logger LOGGER =
+            Logger.getLogger(MethodHandles.lookup().lookupClass().getName());
+
+    /*
+     * A timestamped update is TIMESTAMP_PREFIX, the time it was sent in
+     * milliseconds since the epoch, a space and then the update itself
+     * (either XML or binary).
+     */
+    public static final char TIMESTAMP_PREFIX = '@';
+
+    private static final long REPORT_INTERVAL_NANOS = 1000000000L;
+    private static final int MAX_FRAME_SAMPLES = 1024;
+    private static final String CSV_HEADER =
+            "time,pulses,frameP50Ms,frameP95Ms,frameP99Ms,frameMaxMs," +
+            "handleUpdates,handleUpdateMeanUs,handleUpdateMaxUs,backlog," +
+            "latencySamples,latencyMeanMs,latencyMaxMs," +
+            "timerJitterMeanUs,timerJitterMaxUs,digitUpdates,digitMutations," +
+            "glyphHits,glyphMisses,multicastReceived,multicastLost," +
+            "multicastLate";
+
+    private boolean enabled = false;
+    private CountdownEngine countdownEngine;
+    private Consumer<String> display;
+    private BufferedWriter logWriter;
+
+    private AnimationTimer pulseTimer;
+
+    /*
+     * Current one second window
+     */
+    private long windowStartNanos;
+    private long lastPulseNanos;
+    private int pulses;
+    private final long[] frameNanos = new long[MAX_FRAME_SAMPLES];
+    private int frameSamples;
+    private long handleUpdates;
+    private long handleUpdateNanos;
+    private long handleUpdateMaxNanos;
+    private long latencySamples;
+    private long latencyTotalMillis;
+    private long latencyMaxMillis;
+    /*
+     * Timestamped updates applied since the last pulse
+     */
+    private int pendingSent;
+    private long pendingSentTotalMillis;
+    private long pendingSentMinMillis;
+
+    private final AtomicInteger runLaterBacklog = new AtomicInteger();
+
+    /**
+     * Start collecting.  Must be called on the JavaFX thread.
+     * @param countdownEngine whose tick jitter is to be reported, or null
+     * @param display receives the summary once a second
+     * @param logFile CSV file to write the summaries to, or null
+     */
+    public void start(CountdownEngine countdownEngine,
+            Consumer<String> display, String logFile) {
+        this.countdownEngine = countdownEngine;
+        this.display = display;
+        if (logFile != null) {
+            try {
+                logWriter = new BufferedWriter(new FileWriter(logFile));
+                logWriter.write(CSV_HEADER);
+                logWriter.newLine();
+                logWriter.flush();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Cannot write stats log {0}: {1}",
+                        new Object[] {logFile, e.getMessage()});
+                logWriter = null;
+            }
+        }
+        enabled = true;
+        windowStartNanos = System.nanoTime();
+        lastPulseNanos = 0;
+        if (pulseTimer == null) {
+            pulseTimer = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    pulse(now);
+                }
+            };
+        }
+        pulseTimer.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /*
+     * handleUpdate() timing.  beginHandleUpdate() returns the value to be
+     * passed to endHandleUpdate().
+     */
+    public long beginHandleUpdate() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public void endHandleUpdate(long startNanos) {
+        if (enabled) {
+            long elapsed = System.nanoTime() - startNanos;
+            handleUpdates++;
+            handleUpdateNanos += elapsed;
+            handleUpdateMaxNanos = Math.max(handleUpdateMaxNanos, elapsed);
+        }
+    }
+
+    /*
+     * Called from a reader thread just before Platform.runLater() of a
+     * received update, and from the JavaFX thread when it runs.
+     */
+    public void runLaterPosted() {
+        if (enabled) {
+            runLaterBacklog.incrementAndGet();
+        }
+    }
+
+    public void runLaterRan() {
+        if (enabled) {
+            runLaterBacklog.decrementAndGet();
+        }
+    }
+
+    /**
+     * Prefix msg with the current time, see TIMESTAMP_PREFIX
+     */
+    public static String stamp(String msg) {
+        return TIMESTAMP_PREFIX + Long.toString(System.currentTimeMillis())
+                + ' ' + msg;
+    }
+
+    /**
+     * If msg carries a timestamp, note it for the latency statistics and
+     * return the update without it.  Otherwise return msg unchanged.
+     */
+    public String unstamp(String msg) {
+        if (msg.isEmpty() || msg.charAt(0) != TIMESTAMP_PREFIX) {
+            return msg;
+        }
+        int space = msg.indexOf(' ');
+        if (space < 0) {
+            return msg;
+        }
+        try {
+            updateSent(Long.parseLong(msg.substring(1, space)));
+        } catch (NumberFormatException e) {
+            return msg;
+        }
+        return msg.substring(space + 1);
+    }
+
+    /**
+     * Same as unstamp(String), for an update in a ByteBuffer.  Returns buf
+     * itself or, if it carries a timestamp, a slice following it.
+     */
+    public ByteBuffer unstamp(ByteBuffer buf) {
+        int pos = buf.position();
+        if (!buf.hasRemaining() || buf.get(pos) != TIMESTAMP_PREFIX) {
+            return buf;
+        }
+        long sentMillis = 0;
+        int i = pos + 1;
+        while (i < buf.limit() && buf.get(i) >= '0' && buf.get(i) <= '9') {
+            sentMillis = sentMillis * 10 + (buf.get(i) - '0');
+            i++;
+        }
+        if (i == pos + 1 || i == buf.limit() || buf.get(i) != ' ') {
+            return buf;
+        }
+        updateSent(sentMillis);
+        ByteBuffer update = buf.duplicate();
+        update.position(i + 1);
+        return update.slice();
+    }
+
+    private void updateSent(long sentMillis) {
+        if (!enabled) {
+            return;
+        }
+        if (pendingSent == 0 || sentMillis < pendingSentMinMillis) {
+            pendingSentMinMillis = sentMillis;
+        }
+        pendingSent++;
+        pendingSentTotalMillis += sentMillis;
+    }
+
+    private void pulse(long now) {
+        pulses++;
+        if (lastPulseNanos != 0 && frameSamples < MAX_FRAME_SAMPLES) {
+            frameNanos[frameSamples++] = now - lastPulseNanos;
+        }
+        lastPulseNanos = now;
+        /*
+         * Updates applied since the last pulse are rendered by this one
+         */
+        if (pendingSent > 0) {
+            long nowMillis = System.currentTimeMillis();
+            latencySamples += pendingSent;
+            latencyTotalMillis += pendingSent * nowMillis
+                    - pendingSentTotalMillis;
+            latencyMaxMillis = Math.max(latencyMaxMillis,
+                    nowMillis - pendingSentMinMillis);
+            pendingSent = 0;
+            pendingSentTotalMillis = 0;
+        }
+        if (now - windowStartNanos >= REPORT_INTERVAL_NANOS) {
+            report();
+            resetWindow(now);
+        }
+    }
+
+    private void report() {
+        long[] sorted = Arrays.copyOf(frameNanos, frameSamples);
+        Arrays.sort(sorted);
+        double p50 = percentileMillis(sorted, 0.50);
+        double p95 = percentileMillis(sorted, 0.95);
+        double p99 = percentileMillis(sorted, 0.99);
+        double max = percentileMillis(sorted, 1.0);
+        long handleMeanUs = handleUpdates == 0 ? 0 :
+                handleUpdateNanos / handleUpdates / 1000;
+        long handleMaxUs = handleUpdateMaxNanos / 1000;
+        int backlog = runLaterBacklog.get();
+        FxUpdateQueue updateQueue = FxGlobals.instance().updateQueue;
+        if (updateQueue != null) {
+            backlog += updateQueue.getDepth();
+        }
+        long latencyMean = latencySamples == 0 ? 0 :
+                latencyTotalMillis / latencySamples;
+        long jitterMeanUs = countdownEngine == null ? 0 :
+                countdownEngine.getMeanJitterNanos() / 1000;
+        long jitterMaxUs = countdownEngine == null ? 0 :
+                countdownEngine.getMaxJitterNanos() / 1000;
+        DigitUpdateStats digitStats = DigitUpdateStats.instance();
+        GlyphCache glyphCache = GlyphCache.instance();
+        FxMulticastReader multicastReader =
+                FxGlobals.instance().multicastReader;
+        long multicastReceived = multicastReader == null ? 0 :
+                multicastReader.getReceivedCount();
+        long multicastLost = multicastReader == null ? 0 :
+                multicastReader.getLostCount();
+        long multicastLate = multicastReader == null ? 0 :
+                multicastReader.getLateCount();
+
+        if (display != null) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(Locale.ROOT, "%d fps", pulses));
+            if (Globals.instance().maxFps > 0) {
+                sb.append(String.format(Locale.ROOT, " (max %d)",
+                        Globals.instance().maxFps));
+            }
+            sb.append(String.format(Locale.ROOT,
+                    "  frame p50 %.1f  p95 %.1f  p99 %.1f  max %.1f ms%n",
+                    p50, p95, p99, max));
+            sb.append(String.format(Locale.ROOT,
+                    "handleUpdate %d/s  mean %d us  max %d us  backlog %d%n",
+                    handleUpdates, handleMeanUs, handleMaxUs, backlog));
+            if (latencySamples > 0) {
+                sb.append(String.format(Locale.ROOT,
+                        "latency mean %d ms  max %d ms%n",
+                        latencyMean, latencyMaxMillis));
+            } else {
+                sb.append(String.format(Locale.ROOT, "latency n/a%n"));
+            }
+            if (countdownEngine != null) {
+                sb.append(String.format(Locale.ROOT,
+                        "tick jitter mean %d us  max %d us%n",
+                        jitterMeanUs, jitterMaxUs));
+            }
+            sb.append(String.format(Locale.ROOT,
+                    "digits %d updates  %d mutations",
+                    digitStats.getUpdates(), digitStats.getMutations()));
+            if (multicastReader != null) {
+                sb.append(String.format(Locale.ROOT,
+                        "%nmulticast %d received  %d lost (%.2f%%)  %d late",
+                        multicastReceived, multicastLost,
+                        multicastReader.getLossRate() * 100, multicastLate));
+            }
+            display.accept(sb.toString());
+        }
+        if (logWriter != null) {
+            try {
+                logWriter.write(String.format(Locale.ROOT,
+                        "%d,%d,%.2f,%.2f,%.2f,%.2f,%d,%d,%d,%d,%d,%d,%d," +
+                        "%d,%d,%d,%d,%d,%d,%d,%d,%d",
+                        System.currentTimeMillis(), pulses, p50, p95, p99,
+                        max, handleUpdates, handleMeanUs, handleMaxUs,
+                        backlog, latencySamples, latencyMean,
+                        latencyMaxMillis, jitterMeanUs, jitterMaxUs,
+                        digitStats.getUpdates(), digitStats.getMutations(),
+                        glyphCache.getHitCount(), glyphCache.getMissCount(),
+                        multicastReceived, multicastLost, multicastLate));
+                logWriter.newLine();
+                logWriter.flush();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Stats log write failed: {0}",
+                        e.getMessage());
+                logWriter = null;
+            }
+        }
+    }
+
+    private static double percentileMillis(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1000000d;
+    }
+
+    private void resetWindow(long now) {
+        windowStartNanos = now;
+        pulses = 0;
+        frameSamples = 0;
+        handleUpdates = 0;
+        handleUpdateNanos = 0;
+        handleUpdateMaxNanos = 0;
+        latencySamples = 0;
+        latencyTotalMillis = 0;
+        latencyMaxMillis = 0;
+    }
+}
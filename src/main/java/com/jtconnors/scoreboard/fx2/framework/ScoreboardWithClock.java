@@ -32,6 +32,7 @@
 package com.jtconnors.scoreboard.fx2.framework;
 
 import javafx.scene.media.MediaPlayer;
+import com.jtconnors.scoreboard.common.CountdownEngine;
 
 /*
  * This abstract class defines the base functionality that any Scoreboard
@@ -39,7 +40,10 @@ import javafx.scene.media.MediaPlayer;
  */
 public abstract class ScoreboardWithClock extends Scoreboard {
     
-    protected Timer clockTimer;    
+    /*
+     * Runs the clock and penalties on a master, null on a remote display
+     */
+    protected CountdownEngine countdownEngine;
     public Clock clock;
     public Horn horn;
     
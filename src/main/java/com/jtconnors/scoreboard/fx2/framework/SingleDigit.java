@@ -32,7 +32,6 @@
 package com.jtconnors.scoreboard.fx2.framework;
 
 import javafx.scene.input.KeyCode;
-import javafx.scene.Group;
 import javafx.scene.paint.Color;
 import com.jtconnors.scoreboard.common.Constants;
 
@@ -64,29 +63,19 @@ public abstract class SingleDigit extends DisplayableWithDigits {
  ****************************************************************************/
 
     @Override
-    protected Group createKeyPads() {
-        Group group = new Group();
-        singleDigit.keyPad = new KeyPad(
-                singleDigit.getLayoutBounds().getWidth(),
-                minOverallValue, maxOverallValue, singleDigit,
+    protected KeyPad createKeyPad(Digit digit) {
+        return new KeyPad(digit.getLayoutBounds().getWidth(),
+                minOverallValue, maxOverallValue, digit,
                 (DisplayableWithDigits)this);
-        singleDigit.keyPad.setVisible(false);
-        singleDigit.setAction(new FunctionPtr() {
-            @Override
-            public void invoke() {
-                singleDigit.displayKeyPad();
-            }
-        });
-        group.getChildren().add(singleDigit.keyPad);
-        return group;
     }
 
     @Override
     protected void positionDigits() {
-        getChildren().clear();
+        if (getChildren().isEmpty()) {
+            getChildren().addAll(singleDigit, boundingRect);
+        }
         boundingRect.setWidth(singleDigit.getLayoutBounds().getWidth());
         boundingRect.setHeight(singleDigit.getLayoutBounds().getHeight());
-        getChildren().addAll(singleDigit, boundingRect);
         
         componentWidth = boundingRect.getWidth();
         componentHeight = boundingRect.getHeight();
@@ -171,7 +160,7 @@ public abstract class SingleDigit extends DisplayableWithDigits {
         singleDigit.setIncrementValue(1);
         digitArr.add(singleDigit);
         positionDigits();
-        getChildren().add(createKeyPads());
+        installKeyPadActions();
         /*
          * Set up Arrow Key Traversal, or lack thereof, in this case
          */
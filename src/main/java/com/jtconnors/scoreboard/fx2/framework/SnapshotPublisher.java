@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.fx2.framework;
+
+import com.jtconnors.scoreboard.common.ScoreboardState;
+import com.jtconnors.scoreboard.common.ScoreboardStateListener;
+import com.jtconnors.scoreboard.fx2.networking.FxBroadcastServer;
+
+/*
+ * ScoreboardStateListener which keeps the FxBroadcastServer supplied with
+ * a snapshot of every update variable, so that a remote display which
+ * connects, falls behind or asks for it (XMLSpec.SNAPSHOT_REQUEST) becomes
+ * consistent from a single message rather than showing its config.xml
+ * values until each variable happens to change.  Installed by a master.
+ *
+ * The snapshot is one <snapshot> element.  It is always XML, even with
+ * -UpdateFormat:binary, so as not to take a binary frame sequence number
+ * that only some remote displays would see.  The horn is left out, as it
+ * is an event rather than state.
+ *
+ * A remote display may already show everything in a snapshot, so applying
+ * one must not change what is already shown.  That rules out sending plain
+ * updates: a TwoDigit with allowTrailingZeros set toggles between e.g. "5"
+ * and "05" when it receives the value it already has.  Each value is
+ * therefore taken from the node displaying it (getSnapshotValueStr()),
+ * including its display state, and restored with
+ * setOverallValueViaSnapshot().  The variables follow
+ * XMLSpec.UpdateVariableNames, so a penalty comes before its player number,
+ * whose display state it resets when it starts.
+ *
+ * Encoding a snapshot walks every variable, so it isn't redone on every
+ * change.  The first change after a snapshot only marks it dirty and tells
+ * the FxBroadcastServer it is out of date (invalidateSnapshot()), before
+ * UpdateSender (which is installed after this) posts the update itself.
+ * The snapshot is then encoded again on demand: when the server has a
+ * client waiting for one (FxBroadcastServer.onSnapshotNeeded() calls
+ * refresh()), or when the FxMulticastWriter heartbeat calls getSnapshot().
+ * While nothing connects, falls behind or asks, a master encodes nothing.
+ *
+ * Only used from the JavaFX thread.
+ */
+public class SnapshotPublisher implements ScoreboardStateListener {
+
+    private final ScoreboardState state;
+    private final UpdateTargetRegistry<DisplayableWithDigits> updateTargets;
+    private final String excludedName;
+    private final StringBuilder sb = new StringBuilder();
+    private String snapshot;
+    /*
+     * Whether the state has changed since snapshot was encoded
+     */
+    private boolean dirty = true;
+
+    /**
+     * @param state the state to take snapshots of
+     * @param updateTargets the nodes displaying the state, whose values
+     * are taken in preference to the state's
+     * @param excludedName variable left out of the snapshot (the horn), or
+     * null
+     */
+    public SnapshotPublisher(ScoreboardState state,
+            UpdateTargetRegistry<DisplayableWithDigits> updateTargets,
+            String excludedName) {
+        this.state = state;
+        this.updateTargets = updateTargets;
+        this.excludedName = excludedName;
+    }
+
+    @Override
+    public void stateChanged(String name, int value, Object source) {
+        if (dirty || name.equals(excludedName)) {
+            return;
+        }
+        dirty = true;
+        FxBroadcastServer server = FxGlobals.instance().broadcastServer;
+        if (server != null) {
+            server.invalidateSnapshot();
+        }
+    }
+
+    /*
+     * Rebuild the snapshot and hand it to the FxBroadcastServer, if there
+     * is one
+     */
+    public void publish() {
+        snapshot = encode();
+        dirty = false;
+        FxBroadcastServer server = FxGlobals.instance().broadcastServer;
+        if (server != null) {
+            server.setSnapshot(snapshot);
+        }
+    }
+
+    /*
+     * Rebuild the snapshot if the state has changed since it was last
+     * published
+     */
+    public void refresh() {
+        if (dirty) {
+            publish();
+        }
+    }
+
+    /*
+     * The current snapshot, e.g. for the FxMulticastWriter heartbeat, which
+     * sends it far more often than it changes
+     */
+    public String getSnapshot() {
+        refresh();
+        return snapshot;
+    }
+
+    public String encode() {
+        sb.setLength(0);
+        sb.append(XMLSpec.START_SNAPSHOT);
+        for (String name : state.getNames()) {
+            if (!name.equals(excludedName)) {
+                DisplayableWithDigits updateTarget = updateTargets.get(name);
+                XMLSpec.appendUpdate(sb, name, updateTarget != null
+                        ? updateTarget.getSnapshotValueStr()
+                        : String.valueOf(state.get(name)));
+            }
+        }
+        sb.append(XMLSpec.END_SNAPSHOT);
+        return sb.toString();
+    }
+}
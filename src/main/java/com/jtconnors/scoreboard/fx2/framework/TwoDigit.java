@@ -31,7 +31,6 @@
 
 package com.jtconnors.scoreboard.fx2.framework;
 
-import javafx.scene.Group;
 import javafx.scene.input.KeyCode;
 import javafx.scene.paint.Color;
 import com.jtconnors.scoreboard.common.Constants;
@@ -61,6 +60,12 @@ public abstract class TwoDigit extends DisplayableWithDigits {
     public Digit getTensDigit() { return tensDigit; }
     protected Digit onesDigit;
     public Digit getOnesDigit() { return onesDigit; }
+
+    /*
+     * Set while a snapshot value is restored, which must not toggle the
+     * display state even if the value is unchanged.
+     */
+    private boolean restoring = false;
     
 /****************************************************************************
  *  By virtue of extending the DisplayableWithDigits class, the following   *
@@ -69,39 +74,25 @@ public abstract class TwoDigit extends DisplayableWithDigits {
 
     @Override
     protected void positionDigits() {
-        getChildren().clear();
+        if (getChildren().isEmpty()) {
+            boundingRect.setFill(Color.TRANSPARENT);
+            boundingRect.setVisible(false);
+            getChildren().addAll(tensDigit, onesDigit, boundingRect);
+        }
         double digitWidth = tensDigit.getLayoutBounds().getWidth();
         onesDigit.setLayoutX(digitWidth +
                 (Constants.instance().INTER_DIGIT_GAP_FRACTION * digitWidth));
-        getChildren().addAll(tensDigit, onesDigit);
-        boundingRect.setWidth(getLayoutBounds().getWidth());
-        boundingRect.setHeight(getLayoutBounds().getHeight());
-        boundingRect.setFill(Color.TRANSPARENT);
-        boundingRect.setVisible(false);
-        getChildren().add(boundingRect);
+        fitBoundingRect();
         
         componentWidth = boundingRect.getWidth();
         componentHeight = boundingRect.getHeight();
     }
 
     @Override
-    protected Group createKeyPads() {
-        Group group = new Group();
-        tensDigit.keyPad = new KeyPad(tensDigit.getLayoutBounds().getWidth(),
-                0, maxOverallValue / 10, tensDigit, (DisplayableWithDigits)this);
-        onesDigit.keyPad = new KeyPad(onesDigit.getLayoutBounds().getWidth(),
-                0, 9, onesDigit, (DisplayableWithDigits)this);
-        for (final Digit d : digitArr) {
-            d.keyPad.setVisible(false);
-            d.setAction(new FunctionPtr() {
-                @Override
-                public void invoke() {
-                    d.displayKeyPad();
-                }
-            });
-            group.getChildren().add(d.keyPad);
-        }
-        return group;
+    protected KeyPad createKeyPad(Digit digit) {
+        int maxValue = (digit == tensDigit) ? maxOverallValue / 10 : 9;
+        return new KeyPad(digit.getLayoutBounds().getWidth(), 0, maxValue,
+                digit, (DisplayableWithDigits)this);
     }
 
     @Override
@@ -117,7 +108,8 @@ public abstract class TwoDigit extends DisplayableWithDigits {
         if (isAllowTrailingZeros()) {
             if (getDigitsDisplayState() == DigitsDisplayStates.BLANK) {
                 displayOverallValue = 0;
-            } else if ((getOverallValue() == getPrevOverallValue()) &&
+            } else if (!restoring &&
+                    (getOverallValue() == getPrevOverallValue()) &&
                     (getOverallValue() < 10)) {
                 if (getDigitsDisplayState() == DigitsDisplayStates.REGULAR) {
                     setDigitsDisplayState(DigitsDisplayStates.SPECIAL_CASE);
@@ -164,14 +156,62 @@ public abstract class TwoDigit extends DisplayableWithDigits {
      * here.
      */
     @Override
-    public void setOverallValueViaUpdate(String overallValueStr) {
-        if (overallValueStr.equals("-1")) {
+    public void setOverallValueViaUpdate(int overallValue) {
+        if (overallValue == -1) {
             setDigitsDisplayState(DigitsDisplayStates.BLANK);
-            setOverallValue(Integer.parseInt("0"));
+            setOverallValue(0);
         } else {
-            setOverallValue(Integer.parseInt(overallValueStr));
+            setOverallValue(overallValue);
         }
     }
+    /*
+     * With allowTrailingZeros set, the snapshot value carries the display
+     * state as well, encoded as sendMessageToSocket() does.  It is
+     * restored directly rather than by repeating a value.
+     */
+    @Override
+    public void setOverallValueViaSnapshot(String valueStr) {
+        if (!isAllowTrailingZeros()) {
+            super.setOverallValueViaSnapshot(valueStr);
+            return;
+        }
+        int value = Integer.parseInt(valueStr);
+        DigitsDisplayStates state = DigitsDisplayStates.REGULAR;
+        if (value == -1) {
+            state = DigitsDisplayStates.BLANK;
+            value = 0;
+        } else if (value < 10 && valueStr.length() > 1) {
+            state = DigitsDisplayStates.SPECIAL_CASE;
+        }
+        if (state == getDigitsDisplayState() && value == getOverallValue()) {
+            return;
+        }
+        setDigitsDisplayState(state);
+        restoring = true;
+        try {
+            setOverallValue(value);
+        } finally {
+            restoring = false;
+        }
+    }
+
+    @Override
+    public String getSnapshotValueStr() {
+        int value = (getDigitsDisplayState() == DigitsDisplayStates.BLANK)
+                ? 0 : getOverallValue();
+        return encodeDisplayState(String.valueOf(value));
+    }
+
+    /*
+     * With allowTrailingZeros set, the same value sent twice toggles the
+     * display state, so a repeated update means something and must not be
+     * merged with the one before it.
+     */
+    @Override
+    protected boolean isCoalescible() {
+        return !isAllowTrailingZeros();
+    }
+
     /*
      * This method overrides the superclass method found in the
      * DisplayableDigits class.  In order to support special case numbers
@@ -180,6 +220,10 @@ public abstract class TwoDigit extends DisplayableWithDigits {
      */
     @Override
     public void sendMessageToSocket(String varName, String valueStr) {
+        super.sendMessageToSocket(varName, encodeDisplayState(valueStr));
+    }
+
+    private String encodeDisplayState(String valueStr) {
         String modifiedValueStr = valueStr;
         if (isAllowTrailingZeros()) {
             int valueInt = Integer.parseInt(valueStr);
@@ -195,7 +239,7 @@ public abstract class TwoDigit extends DisplayableWithDigits {
                 }
             }
         }
-        super.sendMessageToSocket(varName, modifiedValueStr);
+        return modifiedValueStr;
     }
     /*
      * This method overrides the superclass method of the same name.
@@ -287,7 +331,7 @@ public abstract class TwoDigit extends DisplayableWithDigits {
         setAllowTrailingZeroes(false);
         setDigitsDisplayState(DigitsDisplayStates.REGULAR);
         positionDigits();
-        getChildren().add(createKeyPads());
+        installKeyPadActions();
         /*
          * Set up Arrow Key Traversal
          */
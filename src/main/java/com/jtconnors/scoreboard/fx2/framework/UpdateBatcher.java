@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.fx2.framework;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javafx.application.Platform;
+import com.jtconnors.scoreboard.common.Globals;
+
+/*
+ * Collects the updates made during one JavaFX pulse and sends them as a
+ * single message.
+ *
+ * While the game clock is running, a tenth of a second tick changes the
+ * clock and up to four Penalty objects, each of which used to go out as its
+ * own message (and its own Platform.runLater() on every remote display).
+ * A CountdownEngine tick writes them all from one Platform.runLater(), so
+ * the first update of the tick schedules a flush with Platform.runLater(),
+ * which runs once the tick is over.  Only the latest value of each variable is kept.
+ *
+ * A flush containing a single variable is sent exactly as it would have been
+ * without batching.  Otherwise it is sent as an <updates> element wrapping
+ * the <update> elements or, with -UpdateFormat:binary, as one binary frame
+ * with an entry per variable.  Remote displays must understand <updates>,
+ * which is why batching is enabled by the -BatchUpdates switch.
+ *
+ * Only used from the JavaFX thread.
+ */
+public class UpdateBatcher {
+
+    private final Map<String, String> pending = new LinkedHashMap<>();
+    private boolean flushScheduled = false;
+
+    public void add(String varName, String valueStr) {
+        pending.put(varName, valueStr);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            Platform.runLater(() -> {
+                flushScheduled = false;
+                flush();
+            });
+        }
+    }
+
+    /*
+     * Send whatever is pending right away.  Also called before an update
+     * which must not be coalesced is sent, so that ordering is preserved.
+     */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        String msg;
+        if (pending.size() == 1) {
+            Map.Entry<String, String> entry =
+                    pending.entrySet().iterator().next();
+            msg = DisplayableWithDigits.encodeUpdate(entry.getKey(),
+                    entry.getValue());
+        } else {
+            msg = encodeBatch();
+        }
+        pending.clear();
+        DisplayableWithDigits.postUpdate(msg);
+    }
+
+    private String encodeBatch() {
+        BinaryUpdateCodec codec = FxGlobals.instance().binaryUpdateCodec;
+        if (Globals.instance().binaryUpdates && codec != null) {
+            codec.beginFrame();
+            for (Map.Entry<String, String> entry : pending.entrySet()) {
+                codec.addEntry(entry.getKey(),
+                        Integer.parseInt(entry.getValue()));
+            }
+            String msg = codec.endFrame();
+            if (msg != null) {
+                return msg;
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(XMLSpec.START_UPDATES);
+        for (Map.Entry<String, String> entry : pending.entrySet()) {
+            XMLSpec.appendUpdate(sb, entry.getKey(), entry.getValue());
+        }
+        sb.append(XMLSpec.END_UPDATES);
+        return sb.toString();
+    }
+}
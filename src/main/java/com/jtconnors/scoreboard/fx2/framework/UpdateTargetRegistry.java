@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.fx2.framework;
+
+/*
+ * Maps update variable names to the objects they update.
+ *
+ * Each name in XMLSpec.UpdateVariableNames is identified by its index in
+ * that List (see XMLSpec.getUpdateVariableId()), and the targets are kept in
+ * an array indexed by that id.  The table is filled once, when the
+ * scoreboard is initialized, after which routing an update costs one hash
+ * lookup, or a plain array access for callers which already have the id.
+ */
+public class UpdateTargetRegistry<T> {
+
+    private final Object[] targets;
+
+    public UpdateTargetRegistry() {
+        targets = new Object[XMLSpec.UpdateVariableNames.size()];
+    }
+
+    /*
+     * Registering a null target is allowed, and has the same effect as not
+     * registering the name at all.
+     */
+    public void register(String name, T target) {
+        int id = XMLSpec.getUpdateVariableId(name);
+        if (id < 0) {
+            throw new IllegalArgumentException(
+                    "Not an update variable: " + name);
+        }
+        targets[id] = target;
+    }
+
+    /**
+     * @return the target registered for the variable with the given id,
+     * or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int id) {
+        if (id < 0 || id >= targets.length) {
+            return null;
+        }
+        return (T) targets[id];
+    }
+
+    /**
+     * @return the target registered for the named variable, or null if
+     * there is none.
+     */
+    public T get(String name) {
+        return get(XMLSpec.getUpdateVariableId(name));
+    }
+}
@@ -38,6 +38,8 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.xml.parsers.DocumentBuilder;
@@ -63,6 +65,8 @@ public abstract class XMLInput {
             Logger.getLogger(MethodHandles.lookup().lookupClass().getName());
 
     protected DocumentBuilder documentBuilder;
+    protected XMLUpdateParser updateParser;
+    protected BinaryUpdateCodec binaryUpdateCodec;
     protected ScoreboardInputInterface scoreboardInputInterface;
 
     public XMLInput(ScoreboardInputInterface scoreboardInputInterface) {
@@ -192,6 +196,8 @@ public abstract class XMLInput {
      */
 
     public void initStringXMLDocumentBuilder() {
+        updateParser = new XMLUpdateParser(XMLSpec.UpdateVariableNames);
+        binaryUpdateCodec = new BinaryUpdateCodec(XMLSpec.UpdateVariableNames);
         try {
         DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
         documentBuilder = dbf.newDocumentBuilder();
@@ -211,14 +217,84 @@ public abstract class XMLInput {
         }
     }
 
+    public void readSnapshotNode(Node node) {
+        if (node.getNodeType() == Node.ELEMENT_NODE) {
+            Element element = (Element) node;
+            String name = XMLSpec.getTagValue(XMLSpec.TAG_NAME, element);
+            if (XMLSpec.isUpdateVariable(name)) {
+                scoreboardInputInterface.restoreVariable(name,
+                        XMLSpec.getTagValue(XMLSpec.TAG_OVERALLVALUE, element));
+            }
+        }
+    }
+
+    /*
+     * Update messages almost always have exactly the shape generated by
+     * XMLSpec.updateStr(), so try the allocation-free XMLUpdateParser first.
+     * Anything it doesn't recognize goes through the DocumentBuilder.
+     * Messages sent by a master running with -UpdateFormat:binary are
+     * handed to the BinaryUpdateCodec instead.  A timestamp added by a
+     * master running with -TimestampUpdates is stripped off first and
+     * noted by RenderStats.
+     */
     public void readUpdateStr(String msg) {
+        msg = RenderStats.instance().unstamp(msg);
+        if (BinaryUpdateCodec.isBinaryUpdate(msg)) {
+            if (binaryUpdateCodec == null ||
+                    !binaryUpdateCodec.decode(msg, scoreboardInputInterface)) {
+                LOGGER.log(Level.INFO, "Ignoring bad binary update: {0}", msg);
+            }
+        } else if (updateParser != null && updateParser.parse(msg)) {
+            applyParsedUpdates();
+        } else {
+            readUpdateDocument(msg.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /*
+     * Same as readUpdateStr(), for messages which have not been decoded
+     * into a String.  The position of buf is not modified.
+     */
+    public void readUpdateBuffer(ByteBuffer buf) {
+        buf = RenderStats.instance().unstamp(buf);
+        if (updateParser != null && updateParser.parse(buf)) {
+            applyParsedUpdates();
+        } else {
+            byte[] bytes = new byte[buf.remaining()];
+            buf.duplicate().get(bytes);
+            readUpdateDocument(bytes);
+        }
+    }
+
+    private void applyParsedUpdates() {
+        for (int i = 0; i < updateParser.getUpdateCount(); i++) {
+            scoreboardInputInterface.updateVariable(updateParser.getName(i),
+                    updateParser.getValue(i));
+        }
+    }
+
+    /*
+     * Parse an update message with the DocumentBuilder.  Slower, but handles
+     * anything that is well-formed XML, either a single <update> element or
+     * an <updates> element containing several.  The <update> elements of a
+     * <snapshot> (which XMLUpdateParser leaves to this) are restored rather
+     * than applied as updates.
+     */
+    public void readUpdateDocument(byte[] msgBytes) {
         try {
-            InputStream msgStream = new
-                    ByteArrayInputStream(msg.getBytes("UTF-8"));
+            InputStream msgStream = new ByteArrayInputStream(msgBytes);
             Document doc = documentBuilder.parse(msgStream);
             doc.getDocumentElement().normalize();
-            NodeList nodeLst = doc.getElementsByTagName("update");
-            readUpdateNode(nodeLst.item(0));
+            boolean isSnapshot = XMLSpec.TAG_SNAPSHOT.equals(
+                    doc.getDocumentElement().getTagName());
+            NodeList nodeLst = doc.getElementsByTagName(XMLSpec.TAG_UPDATE);
+            for (int s = 0; s < nodeLst.getLength(); s++) {
+                if (isSnapshot) {
+                    readSnapshotNode(nodeLst.item(s));
+                } else {
+                    readUpdateNode(nodeLst.item(s));
+                }
+            }
         } catch (IOException | SAXException e) {
             LOGGER.info(Utils.ExceptionStackTraceAsString(e));
         }
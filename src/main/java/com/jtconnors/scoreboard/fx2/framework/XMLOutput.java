@@ -33,18 +33,17 @@ package com.jtconnors.scoreboard.fx2.framework;
 
 import java.lang.invoke.MethodHandles;
 import com.jtconnors.scoreboard.common.LayoutXOptions;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.logging.Logger;
 import com.jtconnors.scoreboard.common.ScoreboardOutputInterface;
 import com.jtconnors.scoreboard.common.Utils;
-import static com.jtconnors.scoreboard.fx2.framework.XMLSpec.*;
 
 /*
  * This base class is used by Scoreboard implementations to dump scoreboard
  * configuration information in XML.  A version of that XML data can be
  * subsequently read in by a remote scorebord to configure its display.
+ * The variables to dump are reached by name through the
+ * ScoreboardOutputInterface, which looks them up in the scoreboard's
+ * ConfigVariableRegistry.
  */
 public abstract class XMLOutput {
     
@@ -52,7 +51,6 @@ public abstract class XMLOutput {
             Logger.getLogger(MethodHandles.lookup().lookupClass().getName());
 
     protected ScoreboardOutputInterface scoreboardOutputInterface;
-    protected Class scoreboardClass;
     protected Object scoreboard;
     protected double scoreboardWidth;
     protected double scoreboardHeight;
@@ -60,41 +58,30 @@ public abstract class XMLOutput {
     public XMLOutput(ScoreboardOutputInterface scoreboardOutputInterface) {
         this.scoreboardOutputInterface = scoreboardOutputInterface;
         scoreboard = scoreboardOutputInterface.getScoreboard();
-        scoreboardClass = scoreboard.getClass();
         scoreboardWidth = scoreboardOutputInterface.getScoreboardWidth();
         scoreboardHeight = scoreboardOutputInterface.getScoreboardHeight();
     }
     
     public abstract void dumpDisplayableNodes();
     
-    public abstract void dumpDisplayableWithDigits(Field field);
+    public abstract void dumpDisplayableWithDigits(String variableName);
     
-    protected Object invokeMethod(Field field, String methodStr) {
-        try {
-            Class fieldClass = field.get(scoreboard).getClass();
-            Method method = fieldClass.getMethod(methodStr);
-            return method.invoke(field.get(scoreboard));
-        } catch (IllegalAccessException | IllegalArgumentException | 
-                NoSuchMethodException | SecurityException |
-                InvocationTargetException e) {
-            LOGGER.info(Utils.ExceptionStackTraceAsString(e));
-        }
-        return null;
+    protected Object getConfigVariable(String variableName) {
+        return scoreboardOutputInterface.getConfigVariable(variableName);
     }
 
-    public void dumpTextNode(Field field) {
+    public void dumpTextNode(String variableName) {
         try {
-            String variableName = field.getName();
-            Double layoutY = (Double)
-                invokeMethod(field, METHOD_getLayoutY) / scoreboardHeight;
-            LayoutXOptions layoutXOption = (LayoutXOptions)
-                invokeMethod(field, METHOD_getLayoutXOption);
-            Object alignWith = invokeMethod(field, METHOD_getAlignWith);
-            String alignWithStr =
-                        scoreboardOutputInterface.getFieldName(alignWith);
-            Double fontSize = (Double)
-                invokeMethod(field, METHOD_getFontSize) / scoreboardHeight;
-            String content = (String)invokeMethod(field, METHOD_getContent);
+            TextNode textNode = (TextNode) getConfigVariable(variableName);
+            if (textNode == null) {
+                return;
+            }
+            Double layoutY = textNode.getLayoutY() / scoreboardHeight;
+            LayoutXOptions layoutXOption = textNode.getLayoutXOption();
+            String alignWithStr = scoreboardOutputInterface.getFieldName(
+                    textNode.getAlignWith());
+            Double fontSize = textNode.getFontSize() / scoreboardHeight;
+            String content = textNode.getContent();
             System.out.println(XMLSpec.configTextNodeStr(variableName,
                 layoutY, layoutXOption.toString(), alignWithStr,
                 fontSize, content));
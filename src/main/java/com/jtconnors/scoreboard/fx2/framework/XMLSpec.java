@@ -32,6 +32,7 @@
 package com.jtconnors.scoreboard.fx2.framework;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import com.jtconnors.scoreboard.common.LayoutXOptions;
 import java.util.Formatter;
 import org.w3c.dom.Element;
@@ -139,6 +140,27 @@ public abstract class XMLSpec {
     public final static String TAG_UPDATE = "update";
     public final static String START_UPDATE = "<" + TAG_UPDATE + ">";
     public final static String END_UPDATE = "</" + TAG_UPDATE + ">";
+
+    public final static String TAG_UPDATES = "updates";
+    public final static String START_UPDATES = "<" + TAG_UPDATES + ">";
+    public final static String END_UPDATES = "</" + TAG_UPDATES + ">";
+
+    /*
+     * Wraps a series of <update> elements holding the complete display
+     * state of every update variable (see SnapshotPublisher).  Unlike
+     * <updates>, applying it a second time changes nothing.
+     */
+    public final static String TAG_SNAPSHOT = "snapshot";
+    public final static String START_SNAPSHOT = "<" + TAG_SNAPSHOT + ">";
+    public final static String END_SNAPSHOT = "</" + TAG_SNAPSHOT + ">";
+
+    /*
+     * Sent by a remote display to ask the master for a snapshot of all the
+     * update variables (see SnapshotPublisher)
+     */
+    public final static String TAG_SNAPSHOT_REQUEST = "snapshotRequest";
+    public final static String SNAPSHOT_REQUEST =
+            "<" + TAG_SNAPSHOT_REQUEST + "/>";
     
     public final static String TAG_URL = "url";
     public final static String START_URL = "<" + TAG_URL + ">";
@@ -177,24 +199,6 @@ public abstract class XMLSpec {
     public final static String TYPE_TextNode = "TextNode";
     public final static String TYPE_TwoDigit = "TwoDigit";
 
-    /*
-     * Method name Strings
-     */
-    public final static String METHOD_getAlignWith = "getAlignWith";
-    public final static String METHOD_getBackgroundColor = "getBackgroundColor";
-    public final static String METHOD_getColor = "getColor";
-    public final static String METHOD_getContent = "getContent";
-    public final static String METHOD_getDigitHeight = "getDigitHeight";
-    public final static String METHOD_getFontSize = "getFontSize";
-    public final static String METHOD_getLayoutX = "getLayoutX";
-    public final static String METHOD_getLayoutXOption = "getLayoutXOption";
-    public final static String METHOD_getLayoutY = "getLayoutY";
-    public final static String METHOD_getOverallValue = "getOverallValue";
-    public final static String METHOD_getPlayerNumber = "getPlayerNumber";
-    public final static String METHOD_getFitHeight = "getFitHeight";
-    public final static String METHOD_getFitWidth = "getFitWidth";
-    public final static String METHOD_getUrl = "getUrl";
-
     /*
      * XML property elements
      */
@@ -277,6 +281,30 @@ public abstract class XMLSpec {
  *  End ArrayList declarations                                              *
  ****************************************************************************/
 
+    /*
+     * Index of each name in UpdateVariableNames.  Built by
+     * indexUpdateVariables(), which the subclass must call once it has
+     * populated UpdateVariableNames.
+     */
+    private static HashMap<String, Integer> UpdateVariableIds;
+
+    protected static void indexUpdateVariables() {
+        UpdateVariableIds = new HashMap<>();
+        for (int i = 0; i < UpdateVariableNames.size(); i++) {
+            UpdateVariableIds.put(UpdateVariableNames.get(i), i);
+        }
+    }
+
+    /**
+     * Returns the index of name in UpdateVariableNames, or -1 if name is
+     * not a variable that can be updated.  This index is used as the
+     * variable id in binary updates and by UpdateTargetRegistry.
+     */
+    public static int getUpdateVariableId(String name) {
+        Integer id = UpdateVariableIds.get(name);
+        return id == null ? -1 : id;
+    }
+
     /**
      * Determines if the name argument is one of the known TextNode variables
      */
@@ -343,12 +371,7 @@ public abstract class XMLSpec {
      * can be updated
      */
     public static boolean isUpdateVariable(String name) {
-        for (String n : UpdateVariableNames) {
-            if (name.equals(n)) {
-                return true;
-            }
-        }
-        return false;
+        return getUpdateVariableId(name) >= 0;
     }
 
     /**
@@ -400,4 +423,18 @@ public abstract class XMLSpec {
                 overallValueStr);
         return stringBuilder.toString();
     }
+
+    /**
+     * Appends an <update> element to stringBuilder.  Used to build the
+     * multi-variable <updates> element, which simply wraps a series of
+     * <update> elements.
+     */
+    public static void appendUpdate(StringBuilder stringBuilder,
+            String varName, String overallValueStr) {
+        stringBuilder.append(START_UPDATE)
+                .append(START_NAME).append(varName).append(END_NAME)
+                .append(START_OVERALLVALUE).append(overallValueStr)
+                .append(END_OVERALLVALUE)
+                .append(END_UPDATE);
+    }
 }
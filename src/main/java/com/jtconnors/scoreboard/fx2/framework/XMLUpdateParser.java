@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.fx2.framework;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/*
+ * Streaming parser for the fixed-shape <update> element generated by
+ * XMLSpec.updateStr(), for example:
+ *
+ *     <update><name>clock</name><overallValue>5990</overallValue></update>
+ *
+ * or a series of them wrapped in an <updates> element, as sent by
+ * UpdateBatcher.
+ *
+ * Every update received by a remote scoreboard used to be run through a
+ * DocumentBuilder.  Instead, this class scans the message in place, matches
+ * the <name> contents against the known update variable names (so no String
+ * is created) and accumulates the <overallValue> contents into an int.
+ * Nothing is allocated per message.
+ *
+ * If the message does not have exactly the expected shape (unknown name,
+ * entity references, attributes, extra elements ...), parse() returns false
+ * and the caller is expected to fall back to the DOM based path found in
+ * XMLInput.
+ *
+ * Instances are not thread safe.  The result of the last successful parse()
+ * is available through getUpdateCount(), getNameIndex(), getName() and
+ * getValue().
+ */
+public class XMLUpdateParser {
+
+    /*
+     * Values are limited to 9 digits so that accumulating them can never
+     * overflow an int.  No scoreboard variable comes close to this.
+     */
+    private static final int MAX_VALUE_DIGITS = 9;
+
+    private final String[] names;
+
+    /*
+     * Exactly one of these two is non-null during a call to parse()
+     */
+    private CharSequence charSource;
+    private ByteBuffer byteSource;
+    private int end;
+
+    /*
+     * A batch holds at most one update per variable, so there is never
+     * a need for more entries than there are names.
+     */
+    private final int[] nameIndexes;
+    private final int[] values;
+    private int updateCount;
+
+    /**
+     * @param names the update variable names, typically
+     * XMLSpec.UpdateVariableNames.  The index of a name in this List is
+     * what getNameIndex() returns.
+     */
+    public XMLUpdateParser(List<String> names) {
+        this.names = names.toArray(new String[names.size()]);
+        nameIndexes = new int[this.names.length];
+        values = new int[this.names.length];
+    }
+
+    /**
+     * Parse an update message held in a CharSequence.
+     * @return true if the message was recognized, false if the caller
+     * should fall back to a full XML parser.
+     */
+    public boolean parse(CharSequence msg) {
+        charSource = msg;
+        try {
+            return parse(0, msg.length());
+        } finally {
+            charSource = null;
+        }
+    }
+
+    /**
+     * Parse an update message held in a ByteBuffer, from its position to its
+     * limit.  The message is expected to be in an ASCII compatible encoding.
+     * The position of the buffer is not modified.
+     * @return true if the message was recognized, false if the caller
+     * should fall back to a full XML parser.
+     */
+    public boolean parse(ByteBuffer buf) {
+        byteSource = buf;
+        try {
+            return parse(buf.position(), buf.limit());
+        } finally {
+            byteSource = null;
+        }
+    }
+
+    /**
+     * @return the number of updates found by the last successful parse(),
+     * one for an <update> element, one or more for <updates>.
+     */
+    public int getUpdateCount() {
+        return updateCount;
+    }
+
+    /**
+     * @return the index, within the names List supplied to the constructor,
+     * of the variable named by update i of the last successful parse().
+     */
+    public int getNameIndex(int i) {
+        return nameIndexes[i];
+    }
+
+    /**
+     * @return the variable name of update i of the last successful parse().
+     * This is the String instance from the names List, not a copy.
+     */
+    public String getName(int i) {
+        return names[nameIndexes[i]];
+    }
+
+    /**
+     * @return the overallValue of update i of the last successful parse().
+     */
+    public int getValue(int i) {
+        return values[i];
+    }
+
+    private char charAt(int i) {
+        if (charSource != null) {
+            return charSource.charAt(i);
+        }
+        return (char) (byteSource.get(i) & 0xff);
+    }
+
+    private boolean parse(int start, int end) {
+        this.end = end;
+        updateCount = 0;
+        int pos = skipWhitespace(start);
+        /*
+         * Tolerate an XML declaration, i.e. <?xml version="1.0"?>
+         */
+        if (pos + 1 < end && charAt(pos) == '<' && charAt(pos + 1) == '?') {
+            pos = skipPast(pos + 2, '?', '>');
+            if (pos < 0) {
+                return false;
+            }
+            pos = skipWhitespace(pos);
+        }
+        int count = 0;
+        int batchPos = expect(pos, XMLSpec.START_UPDATES);
+        if (batchPos < 0) {
+            pos = parseUpdate(pos, count++);
+        } else {
+            pos = skipWhitespace(batchPos);
+            while (pos >= 0 && expect(pos, XMLSpec.END_UPDATES) < 0) {
+                if (count == nameIndexes.length) {
+                    return false;
+                }
+                pos = parseUpdate(pos, count++);
+                if (pos >= 0) {
+                    pos = skipWhitespace(pos);
+                }
+            }
+            if (pos >= 0) {
+                pos = expect(pos, XMLSpec.END_UPDATES);
+            }
+        }
+        if (pos < 0 || count == 0 || skipWhitespace(pos) != end) {
+            return false;
+        }
+        updateCount = count;
+        return true;
+    }
+
+    /*
+     * Parses one <update> element starting at pos into entry i.  Returns the
+     * position following it, or -1 if it isn't of the expected shape.
+     */
+    private int parseUpdate(int pos, int i) {
+        pos = expect(pos, XMLSpec.START_UPDATE);
+        if (pos < 0) {
+            return -1;
+        }
+        pos = expect(skipWhitespace(pos), XMLSpec.START_NAME);
+        if (pos < 0) {
+            return -1;
+        }
+        int nameStart = pos;
+        while (pos < end && charAt(pos) != '<') {
+            pos++;
+        }
+        int index = matchName(nameStart, pos);
+        if (index < 0) {
+            return -1;
+        }
+        pos = expect(pos, XMLSpec.END_NAME);
+        if (pos < 0) {
+            return -1;
+        }
+        pos = expect(skipWhitespace(pos), XMLSpec.START_OVERALLVALUE);
+        if (pos < 0) {
+            return -1;
+        }
+        pos = parseValue(pos, i);
+        if (pos < 0) {
+            return -1;
+        }
+        pos = expect(pos, XMLSpec.END_OVERALLVALUE);
+        if (pos < 0) {
+            return -1;
+        }
+        pos = expect(skipWhitespace(pos), XMLSpec.END_UPDATE);
+        if (pos < 0) {
+            return -1;
+        }
+        nameIndexes[i] = index;
+        return pos;
+    }
+
+    /*
+     * Returns the position following the literal str, or -1 if str
+     * does not appear at pos.
+     */
+    private int expect(int pos, String str) {
+        int len = str.length();
+        if (pos + len > end) {
+            return -1;
+        }
+        for (int i = 0; i < len; i++) {
+            if (charAt(pos + i) != str.charAt(i)) {
+                return -1;
+            }
+        }
+        return pos + len;
+    }
+
+    private int skipWhitespace(int pos) {
+        while (pos < end) {
+            char c = charAt(pos);
+            if (c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    /*
+     * Returns the position following the two character sequence c1 c2,
+     * or -1 if it isn't found.
+     */
+    private int skipPast(int pos, char c1, char c2) {
+        while (pos + 1 < end) {
+            if (charAt(pos) == c1 && charAt(pos + 1) == c2) {
+                return pos + 2;
+            }
+            pos++;
+        }
+        return -1;
+    }
+
+    private int matchName(int start, int stop) {
+        int len = stop - start;
+        for (int n = 0; n < names.length; n++) {
+            String name = names[n];
+            if (name.length() != len) {
+                continue;
+            }
+            int i = 0;
+            while (i < len && charAt(start + i) == name.charAt(i)) {
+                i++;
+            }
+            if (i == len) {
+                return n;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Accumulates an optionally negative decimal integer into entry i of
+     * values.  Returns the position following the last digit, or -1 if no
+     * valid number is found.
+     */
+    private int parseValue(int pos, int i) {
+        boolean negative = false;
+        if (pos < end && charAt(pos) == '-') {
+            negative = true;
+            pos++;
+        }
+        int digitStart = pos;
+        int result = 0;
+        while (pos < end) {
+            char c = charAt(pos);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            if (pos - digitStart >= MAX_VALUE_DIGITS) {
+                return -1;
+            }
+            result = (result * 10) + (c - '0');
+            pos++;
+        }
+        if (pos == digitStart) {
+            return -1;
+        }
+        values[i] = negative ? -result : result;
+        return pos;
+    }
+}
@@ -34,42 +34,54 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.lang.invoke.MethodHandles;
 import com.jtconnors.scoreboard.common.Globals;
-import javafx.beans.Observable;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontPosture;
 import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+import javafx.geometry.VPos;
+import javafx.beans.binding.Bindings;
 import javafx.application.Platform;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.logging.Level;
+import javafx.scene.CacheHint;
+import javafx.scene.Group;
 import java.util.logging.Logger;
+import javafx.scene.Node;
+import javafx.scene.Parent;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
-import javafx.animation.Animation;
 import javafx.scene.input.KeyCode;
 import javafx.scene.shape.Line;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.media.MediaPlayer;
 import javafx.scene.paint.Color;
 import com.jtconnors.scoreboard.common.Constants;
+import com.jtconnors.scoreboard.common.CountdownEngine;
 import com.jtconnors.scoreboard.common.ScoreboardOutputInterface;
 import com.jtconnors.scoreboard.common.ScoreboardInputInterface;
+import com.jtconnors.scoreboard.common.ScoreboardState;
 import com.jtconnors.scoreboard.common.XMLReaderInterface;
 import com.jtconnors.scoreboard.common.LayoutXOptions;
 import com.jtconnors.scoreboard.fx2.framework.XMLInput;
+import com.jtconnors.scoreboard.fx2.framework.BinaryUpdateCodec;
+import com.jtconnors.scoreboard.fx2.framework.UpdateBatcher;
+import com.jtconnors.scoreboard.fx2.framework.UpdateTargetRegistry;
+import com.jtconnors.scoreboard.fx2.framework.UpdateSender;
+import com.jtconnors.scoreboard.fx2.framework.CoalescingInputInterface;
+import com.jtconnors.scoreboard.fx2.networking.FxUpdateQueue;
 import com.jtconnors.scoreboard.fx2.framework.Displayable;
 import com.jtconnors.scoreboard.fx2.framework.DisplayableWithDigits;
 import com.jtconnors.scoreboard.fx2.framework.FxGlobals;
 import com.jtconnors.scoreboard.fx2.framework.Horn;
 import com.jtconnors.scoreboard.fx2.framework.Penalty;
+import com.jtconnors.scoreboard.fx2.framework.RenderStats;
+import com.jtconnors.scoreboard.fx2.framework.Scoreboard;
+import com.jtconnors.scoreboard.fx2.framework.ConfigVariableRegistry;
 import com.jtconnors.scoreboard.fx2.framework.ScoreboardWithClock;
+import com.jtconnors.scoreboard.fx2.framework.SnapshotPublisher;
 import com.jtconnors.scoreboard.fx2.framework.SingleDigit;
 import com.jtconnors.scoreboard.fx2.framework.TextNode;
-import com.jtconnors.scoreboard.fx2.framework.Timer;
 import com.jtconnors.scoreboard.fx2.framework.TwoDigit;
 import com.jtconnors.scoreboard.fx2.networking.FxSocketReader;
 import com.jtconnors.scoreboard.fx2.util.FXUtils;
@@ -78,7 +90,9 @@ import com.jtconnors.scoreboard.fx2.framework.FxConstants;
 import com.jtconnors.scoreboard.fx2.framework.XMLSpec;
 import com.jtconnors.scoreboard.fx2.networking.FxMulticastReader;
 import com.jtconnors.scoreboard.fx2.networking.FxMulticastWriter;
-import com.jtconnors.scoreboard.fx2.networking.FxMultipleSocketWriter;
+import com.jtconnors.scoreboard.fx2.networking.FxBroadcastServer;
+import com.jtconnors.scoreboard.fx2.networking.NetworkThreads;
+import com.jtconnors.scoreboard.fx2.networking.ReconnectSupervisor;
 
 /*
  * This abstract class defines the behavior of a hockey scoreboard object.
@@ -117,17 +131,6 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
         }
     }
 
-    /*
-     * Timers associated with the Clock instance and 4 Penalty instances
-     * 
-     * Note: "protected Timer clockTimer" is part of this group and defined
-     * in the superclass ScoreboardWithClock.
-     */
-    protected Timer homePenalty1Timer;
-    protected Timer guestPenalty1Timer;
-    protected Timer homePenalty2Timer;
-    protected Timer guestPenalty2Timer;
-
     /*
      * These values, based upon the display width and height dimensions are
      * defined in the computeSizesAndOffsets() method.  They are used to size
@@ -152,11 +155,12 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
      * XML Reader for the scoreboard
      */
     XMLInput hockeyScoreboardXMLInput;
+    CoalescingInputInterface coalescingInputInterface;
     /*
  ****************************************************************************
  *  The following variables represent configurable nodes that can be        *
- *  displayed on a remote hockey scoreboard.  These must be public so that  *
- *  we can use reflection to get their values.                              *
+ *  displayed on a remote hockey scoreboard.  They are reached by name      *
+ *  through the configVariables registry, populated in init().             *
  *                                                                          *
  *  Note: any change below will require, at minimum, changes throughout     *
  *  this file and in the XMLSPec.java file.                                 *
@@ -234,6 +238,18 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
      * running or (2) if the scoreboard in question is a remote display.
      */
     private Rectangle mouseBlocker;
+    /*
+     * Nodes which don't change during a game (background, labels, line,
+     * logo) are kept in staticLayer, which is cached as an image unless
+     * -CacheStaticLayer:false is given.  Digits, buttons and status text,
+     * which do change, are in dynamicLayer above it.
+     */
+    private Group staticLayer;
+    private Group dynamicLayer;
+    /*
+     * Shows the RenderStats summary when -DisplayStats is specified
+     */
+    private Text statsText;
     /*
      * These offset variables represent the various layoutY offsets,
      * in pixels, from the top of the scoreboard, of the various rows that
@@ -257,18 +273,32 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
      * (true) or the UI version of the Scoreboard (false)
      */
     private boolean remoteDisplay = false;
+    /*
+     * System.nanoTime() when construction began, see logStartupStats()
+     */
+    private final long startupNanos;
 
     /*
      * Mapping between String name of a configurable scoreboard variable to
-     * the actual variable Field. Defined in init();
+     * accessors for the actual variable. Defined in init();
      */
-    private Map<String, Field> configVariableMap;
+    private ConfigVariableRegistry configVariables;
 
     /*
      * Mapping between String name of a updatable scoreboard variable to
-     * the actual variable Field.  Defined in init();
+     * the actual variable.  Defined in init();
      */
-    private Map<String, Field> updateVariableMap;
+    private UpdateTargetRegistry<DisplayableWithDigits> updateTargets;
+
+    /*
+     * Game state displayed by this scoreboard.  Defined in init();
+     */
+    private ScoreboardState scoreboardState;
+    /*
+     * Keeps the snapshot sent to newly connected remote displays current.
+     * Master only.
+     */
+    private SnapshotPublisher snapshotPublisher;
 
     private static String ExceptionStackTraceAsString(Exception e) {
         StringWriter sw = new StringWriter();
@@ -290,69 +320,56 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
 
     public HockeyScoreboard(double width, double height,
             boolean remoteDisplay) {
+        startupNanos = System.nanoTime();
         this.width = width;
         this.height = height;
         this.remoteDisplay = remoteDisplay;
+        /*
+         * Remote displays block all input, so never create KeyPads there
+         */
+        FxGlobals.instance().keyPadsEnabled = !remoteDisplay;
 
         computeSizesAndOffsets();
-
-        if (!remoteDisplay) {
-            clockTimer = new Timer(FxConstants.instance().ONE_TENTH_SECOND);
-            homePenalty1Timer = new Timer(
-                    FxConstants.instance().ONE_TENTH_SECOND);
-            guestPenalty1Timer = new Timer(
-                    FxConstants.instance().ONE_TENTH_SECOND);
-            homePenalty2Timer = new Timer(
-                    FxConstants.instance().ONE_TENTH_SECOND);
-            guestPenalty2Timer = new Timer(
-                    FxConstants.instance().ONE_TENTH_SECOND);
-        }
     }
 
     protected void init() {
         HockeyScoreboardXMLSpec.init();
-        /*
-         * Populate configVariableMap after HockeyScoreboardXMLSpec ArrayLists
-         * have been initialized.
-         */
-        configVariableMap = new HashMap<>();
-        try {
-            for (String varName : XMLSpec.ConfigVariableNames) {
-                configVariableMap.put(varName, getClass().getField(varName));
-            }
-        } catch (NoSuchFieldException | SecurityException e) {
-            LOGGER.severe(ExceptionStackTraceAsString(e));
+        FxGlobals.instance().binaryUpdateCodec =
+                new BinaryUpdateCodec(XMLSpec.UpdateVariableNames);
+        if (Globals.instance().batchUpdates) {
+            FxGlobals.instance().updateBatcher = new UpdateBatcher();
         }
+        registerConfigVariables();
         /*
-         * Populate updateVariableMap after HockeyScoreboardXMLSpec ArrayLists
-         * have been initialized.
+         * Populate updateTargets after HockeyScoreboardXMLSpec ArrayLists
+         * have been initialized.  The Penalty player numbers are not
+         * individual variables, but rather a component of each Penalty.
          */
-        updateVariableMap = new HashMap<>();
-        try {
-            for (String varName : XMLSpec.DisplayableWithDigitsNames) {
-                updateVariableMap.put(varName, getClass().getField(varName));
-            }
-            /*
-             * Add the Penalty player numbers to the updateVariableMap.  These
-             * represent a special case and must be done here because the
-             * Penalty player numbers are not individual variables, but
-             * rather a component of each Penatly.
-             */
-            updateVariableMap.put(
-                    HockeyScoreboardXMLSpec.NAME_homePenalty1playerNumber,
-                    homePenalty1.getPlayerNumberField());
-            updateVariableMap.put(
-                    HockeyScoreboardXMLSpec.NAME_guestPenalty1playerNumber,
-                    guestPenalty1.getPlayerNumberField());
-            updateVariableMap.put(
-                    HockeyScoreboardXMLSpec.NAME_homePenalty2playerNumber,
-                    homePenalty2.getPlayerNumberField());
-            updateVariableMap.put(
-                    HockeyScoreboardXMLSpec.NAME_guestPenalty2playerNumber,
-                    guestPenalty2.getPlayerNumberField());
-        } catch (NoSuchFieldException | SecurityException e) {
-            LOGGER.severe(ExceptionStackTraceAsString(e));
-        }
+        updateTargets = new UpdateTargetRegistry<>();
+        updateTargets.register(HockeyScoreboardXMLSpec.NAME_clock, clock);
+        updateTargets.register(HockeyScoreboardXMLSpec.NAME_homeScore,
+                homeScore);
+        updateTargets.register(HockeyScoreboardXMLSpec.NAME_guestScore,
+                guestScore);
+        updateTargets.register(HockeyScoreboardXMLSpec.NAME_homeShotsOnGoal,
+                homeShotsOnGoal);
+        updateTargets.register(HockeyScoreboardXMLSpec.NAME_guestShotsOnGoal,
+                guestShotsOnGoal);
+        updateTargets.register(HockeyScoreboardXMLSpec.NAME_period, period);
+        registerPenalty(HockeyScoreboardXMLSpec.NAME_homePenalty1,
+                HockeyScoreboardXMLSpec.NAME_homePenalty1playerNumber,
+                homePenalty1);
+        registerPenalty(HockeyScoreboardXMLSpec.NAME_guestPenalty1,
+                HockeyScoreboardXMLSpec.NAME_guestPenalty1playerNumber,
+                guestPenalty1);
+        registerPenalty(HockeyScoreboardXMLSpec.NAME_homePenalty2,
+                HockeyScoreboardXMLSpec.NAME_homePenalty2playerNumber,
+                homePenalty2);
+        registerPenalty(HockeyScoreboardXMLSpec.NAME_guestPenalty2,
+                HockeyScoreboardXMLSpec.NAME_guestPenalty2playerNumber,
+                guestPenalty2);
+        updateTargets.register(HockeyScoreboardXMLSpec.NAME_horn, horn);
+        setupScoreboardState();
 
         positionNodes();
         hockeyScoreboardXMLOutput = new HockeyScoreboardXMLOutput(
@@ -366,6 +383,61 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
         if (Globals.instance().dumpConfig) {
             hockeyScoreboardXMLOutput.dumpDisplayableNodes();
         }
+        if (Globals.instance().displayStats) {
+            setupStatsOverlay();
+        }
+        logStartupStats();
+    }
+
+    /*
+     * Overlay the RenderStats summary in the top left corner, above
+     * everything else (including the mouseBlocker), without intercepting
+     * any mouse events.
+     */
+    private void setupStatsOverlay() {
+        statsText = new Text();
+        statsText.setFont(Font.font("Monospaced", fontSize / 2));
+        statsText.setFill(Color.LIME);
+        statsText.setTextOrigin(VPos.TOP);
+        Rectangle statsBackground = new Rectangle();
+        statsBackground.setFill(Color.rgb(0, 0, 0, 0.6));
+        statsBackground.widthProperty().bind(Bindings.createDoubleBinding(
+                () -> statsText.getLayoutBounds().getWidth() + fontSize / 2,
+                statsText.layoutBoundsProperty()));
+        statsBackground.heightProperty().bind(Bindings.createDoubleBinding(
+                () -> statsText.getLayoutBounds().getHeight() + fontSize / 2,
+                statsText.layoutBoundsProperty()));
+        statsText.setLayoutX(fontSize / 4);
+        statsText.setLayoutY(fontSize / 4);
+        Group statsOverlay = new Group(statsBackground, statsText);
+        statsOverlay.setMouseTransparent(true);
+        getChildren().add(statsOverlay);
+        RenderStats.instance().start(countdownEngine, statsText::setText,
+                Globals.instance().statsLogFile);
+    }
+
+    /*
+     * Report how long it took to build the scoreboard, from the start of
+     * the constructor to the end of init(), along with the resulting heap
+     * usage and number of nodes.
+     */
+    private void logStartupStats() {
+        long startupMillis = (System.nanoTime() - startupNanos) / 1_000_000L;
+        Runtime runtime = Runtime.getRuntime();
+        long usedHeapKB = (runtime.totalMemory() - runtime.freeMemory()) / 1024;
+        LOGGER.log(Level.INFO,
+                "Scoreboard startup took {0} ms, heap used {1} KB, {2} nodes",
+                new Object[] {startupMillis, usedHeapKB, countNodes(this)});
+    }
+
+    private static int countNodes(Node node) {
+        int count = 1;
+        if (node instanceof Parent) {
+            for (Node child : ((Parent) node).getChildrenUnmodifiable()) {
+                count += countNodes(child);
+            }
+        }
+        return count;
     }
 
     /*
@@ -413,12 +485,25 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
 
     private void positionNodes() {
         getChildren().clear();
+        staticLayer = new Group();
+        dynamicLayer = new Group();
+        getChildren().addAll(staticLayer, dynamicLayer);
+        if (Globals.instance().cacheStaticLayer) {
+            /*
+             * Rendered once into an image and reused.  This only needs
+             * to be redone if something in it changes, e.g. the
+             * background color.  Only the background lies under the
+             * digits, so this mostly helps full repaints, see README.
+             */
+            staticLayer.setCache(true);
+            staticLayer.setCacheHint(CacheHint.QUALITY);
+        }
 
         backgroundRect = new Rectangle();
         backgroundRect.setWidth(width);
         backgroundRect.setHeight(height);
         backgroundRect.setFill(backgroundColor);
-        getChildren().add(backgroundRect);
+        staticLayer.getChildren().add(backgroundRect);
 
         mouseBlocker = new Rectangle();
         // height of mouseBlocker set below, contingent on remoteDisplay
@@ -449,18 +534,7 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
             mouseBlocker.setHeight(controlRowOffset);
             mouseBlocker.setVisible(false);
             getChildren().add(mouseBlocker);
-            if (Globals.instance().useIPSocket) {
-                FxGlobals.instance().multipleSocketWriter
-                        = new FxMultipleSocketWriter(2011,
-                                Globals.instance().debugFlags);
-                new Thread(FxGlobals.instance().multipleSocketWriter).start();
-            } else {
-                FxGlobals.instance().multicastWriter
-                        = new FxMulticastWriter(Globals.instance().sessionAddr,
-                                Globals.instance().port,
-                                Globals.instance().debugFlags);
-                new Thread(FxGlobals.instance().multicastWriter).start();
-            }
+            startUpdateWriter();
         } else {
             setupRemoteDisplay();
             // Block entire remote display
@@ -477,12 +551,12 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
         homeText.setLayoutY(clockRowOffset);
         homeText.setLayoutX(horizontalBorder);
         homeText.setLayoutXOption(LayoutXOptions.LEFT_JUSTIFY);
-        getChildren().add(homeText);
+        staticLayer.getChildren().add(homeText);
 
         clock.setLayoutY(clockRowOffset);
         clock.setLayoutX((width - clock.getLayoutBounds().getWidth()) / 2);
         clock.setLayoutXOption(LayoutXOptions.CENTER);
-        getChildren().add(clock);
+        dynamicLayer.getChildren().add(clock);
 
         guestText = new TextNode(HockeyScoreboardXMLSpec.NAME_guestText,
                 "GUEST", fontSize);
@@ -490,7 +564,7 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
         guestText.setLayoutX(width - guestText.getLayoutBounds().getWidth()
                 - horizontalBorder);
         guestText.setLayoutXOption(LayoutXOptions.RIGHT_JUSTIFY);
-        getChildren().add(guestText);
+        staticLayer.getChildren().add(guestText);
     }
 
     private void setupScoreRow() {
@@ -505,7 +579,7 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
                 - horizontalBorder);
         guestScore.setLayoutXOption(LayoutXOptions.RIGHT_JUSTIFY);
         guestScore.setColor(FxConstants.instance().DEFAULT_SECONDARY_COLOR);
-        getChildren().addAll(homeScore, guestScore);
+        dynamicLayer.getChildren().addAll(homeScore, guestScore);
     }
 
     private void setupPeriodRow() {
@@ -526,7 +600,8 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
                 + (period.getLayoutBounds().getHeight()
                 - periodText.getLayoutBounds().getHeight()) / 2);
         period.setLayoutY(periodRowOffset);
-        getChildren().addAll(periodText, period);
+        staticLayer.getChildren().add(periodText);
+        dynamicLayer.getChildren().add(period);
     }
 
     private void setupShotsOnGoalRow() {
@@ -558,8 +633,8 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
         guestShotsOnGoal.setLayoutXOption(LayoutXOptions.ALIGN_RIGHT_OF);
         guestShotsOnGoal.setAlignWith(shotsOnGoalText);
         guestShotsOnGoal.setLayoutY(shotsOnGoalOffset);
-        getChildren().addAll(homeShotsOnGoal, shotsOnGoalText,
-                guestShotsOnGoal);
+        staticLayer.getChildren().add(shotsOnGoalText);
+        dynamicLayer.getChildren().addAll(homeShotsOnGoal, guestShotsOnGoal);
     }
 
     private void setupLineRow() {
@@ -571,7 +646,7 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
         line.setEndX(width);
         line.setEndY(lineRowOffset);
         line.setStroke(FxConstants.instance().DEFAULT_TEXT_COLOR);
-        getChildren().add(line);
+        staticLayer.getChildren().add(line);
     }
 
     private void setupPenalty1Row() {
@@ -583,7 +658,7 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
         guestPenalty1.setLayoutX(width
                 - guestPenalty1.getLayoutBounds().getWidth() - horizontalBorder);
         guestPenalty1.setLayoutXOption(LayoutXOptions.RIGHT_JUSTIFY);
-        getChildren().addAll(homePenalty1, guestPenalty1);
+        dynamicLayer.getChildren().addAll(homePenalty1, guestPenalty1);
     }
 
     private void setupPenaltyTextRow() {
@@ -602,7 +677,7 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
         guestPenaltyText.setLayoutX(guestPenalty1.getLayoutX());
         guestPenaltyText.setLayoutXOption(LayoutXOptions.ALIGN_WITH);
         guestPenaltyText.setAlignWith(guestPenalty1);
-        getChildren().addAll(homePenaltyText, guestPenaltyText);
+        staticLayer.getChildren().addAll(homePenaltyText, guestPenaltyText);
     }
 
     private void setupPenalty2Row() {
@@ -616,7 +691,7 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
         guestPenalty2.setLayoutX(width
                 - guestPenalty2.getLayoutBounds().getWidth() - horizontalBorder);
         guestPenalty2.setLayoutXOption(LayoutXOptions.RIGHT_JUSTIFY);
-        getChildren().addAll(homePenalty2, guestPenalty2);
+        dynamicLayer.getChildren().addAll(homePenalty2, guestPenalty2);
     }
 
     private void setupLogoRow() {
@@ -635,7 +710,7 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
         logoImageView.setLayoutY(logoOffset);
         logoImageView.setLayoutX((width
                 - logoImageView.getLayoutBounds().getWidth()) / 2);
-        getChildren().add(logoImageView);
+        staticLayer.getChildren().add(logoImageView);
     }
 
     private void setupControlRow() {
@@ -700,10 +775,8 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
             }
         });
 
-        clockTimer.getTimeline().statusProperty().addListener((Observable ov) -> {
-            Animation.Status status
-                    = clockTimer.getTimeline().getStatus();
-            if (status == Animation.Status.RUNNING) {
+        countdownEngine.addRunningListener((boolean running) -> {
+            if (running) {
                 startStopButton.setContent("Stop");
                 if (homePenalty1.getOverallValue() == 0) {
                     homePenalty1.getPlayerNumber().
@@ -715,10 +788,12 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
                 mouseBlocker.setVisible(true);
             } else {
                 startStopButton.setContent("Start");
-                homePenalty1Timer.stop();
-                homePenalty2Timer.stop();
-                guestPenalty1Timer.stop();
-                guestPenalty2Timer.stop();
+                LOGGER.fine(() -> "Clock stopped after " +
+                        countdownEngine.getTickCount() +
+                        " ticks, jitter mean " +
+                        countdownEngine.getMeanJitterNanos() / 1000 +
+                        "us, max " +
+                        countdownEngine.getMaxJitterNanos() / 1000 + "us");
                 mouseBlocker.setVisible(false);
             }
         });
@@ -737,18 +812,46 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
             quitButton.setTextColor(Color.GRAY);
         });
         quitButton.setOnMouseClicked((MouseEvent event) -> {
-            if (Globals.instance().useIPSocket) {
-                FxGlobals.instance().multipleSocketWriter.shutdown();
-            } else {
-                FxGlobals.instance().multicastWriter.close();
-            }
-            Platform.exit();
+            quit();
         });
         if (Globals.instance().useHorn) {
-            getChildren().addAll(hornButton, startStopButton, quitButton);
+            dynamicLayer.getChildren().addAll(hornButton, startStopButton,
+                    quitButton);
         } else {
-            getChildren().addAll(startStopButton, quitButton);
+            dynamicLayer.getChildren().addAll(startStopButton, quitButton);
+        }
+    }
+
+    /*
+     * Close every connection and stop the networking threads, then exit.
+     * Waiting for the threads is done off the JavaFX thread, so that the
+     * display doesn't freeze meanwhile.
+     */
+    private void quit() {
+        quitButton.setDisable(true);
+        if (countdownEngine != null) {
+            countdownEngine.stop();
+        }
+        if (FxGlobals.instance().broadcastServer != null) {
+            FxGlobals.instance().broadcastServer.shutdown();
+        }
+        if (FxGlobals.instance().multicastWriter != null) {
+            FxGlobals.instance().multicastWriter.close();
         }
+        if (FxGlobals.instance().multicastReader != null) {
+            FxGlobals.instance().multicastReader.close();
+        }
+        if (FxGlobals.instance().socketReader != null) {
+            FxGlobals.instance().socketReader.shutdown();
+        }
+        if (FxGlobals.instance().updateQueue != null) {
+            FxGlobals.instance().updateQueue.stop();
+        }
+        Thread.ofPlatform().name("Quit").start(() -> {
+            NetworkThreads.instance().shutdown((long) FxConstants.instance()
+                    .NETWORK_SHUTDOWN_TIMEOUT.toMillis());
+            Platform.exit();
+        });
     }
 
     public String updateStatusString(int numConnections) {
@@ -760,10 +863,20 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
             sb.append(Integer.toString(Globals.instance().port));
             sb.append("  (");
             if (remoteDisplay) {
-                if (Globals.instance().socketClosed) {
-                    sb.append("not ");
+                FxSocketReader socketReader = FxGlobals.instance().socketReader;
+                ReconnectSupervisor.Status status =
+                        socketReader == null
+                        || socketReader.statusProperty() == null ? null
+                        : socketReader.statusProperty().get();
+                if (status == ReconnectSupervisor.Status.CONNECTING) {
+                    sb.append("connecting)");
+                } else {
+                    if (status == null ? Globals.instance().socketClosed
+                            : status != ReconnectSupervisor.Status.CONNECTED) {
+                        sb.append("not ");
+                    }
+                    sb.append("connected)");
                 }
-                sb.append("connected)");
             } else {
                 sb.append(Integer.toString(numConnections));
                 sb.append(" connection");
@@ -795,7 +908,7 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
             displaySocketText.setLayoutX(
                     (width - displaySocketText.getLayoutBounds().getWidth()) / 2);
             displaySocketText.setLayoutXOption(LayoutXOptions.CENTER);
-            getChildren().add(displaySocketText);
+            dynamicLayer.getChildren().add(displaySocketText);
         }
     }
 
@@ -813,21 +926,69 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
      * Remote display methods
      */
     private void setupRemoteDisplay() {
+        coalescingInputInterface = new CoalescingInputInterface(
+                new ScoreboardInputInterfaceImpl(),
+                XMLSpec.UpdateVariableNames, updateTargets);
         hockeyScoreboardXMLInput = new HockeyScoreboardXMLInput(
-                new ScoreboardInputInterfaceImpl());
+                coalescingInputInterface);
         hockeyScoreboardXMLInput.readConfigFile();
         hockeyScoreboardXMLInput.initStringXMLDocumentBuilder();
+        FxGlobals.instance().updateQueue = new FxUpdateQueue(this,
+                FxConstants.instance().UPDATE_QUEUE_CAPACITY);
+        FxGlobals.instance().updateQueue.start();
+        startUpdateReader();
+    }
+
+    /*
+     * With -DisableNetwork:true, no sockets are opened and the scoreboard
+     * is driven directly, e.g. by a headless harness.
+     */
+    private void startUpdateWriter() {
+        if (!Globals.instance().useNetwork) {
+            return;
+        }
+        if (Globals.instance().useIPSocket) {
+            FxGlobals.instance().broadcastServer
+                    = new FxBroadcastServer(Globals.instance().port,
+                            Globals.instance().debugFlags,
+                            snapshotPublisher::refresh);
+            snapshotPublisher.publish();
+            NetworkThreads.instance().start("BroadcastServer",
+                    FxGlobals.instance().broadcastServer);
+        } else {
+            FxGlobals.instance().multicastWriter
+                    = new FxMulticastWriter(Globals.instance().sessionAddr,
+                            Globals.instance().port,
+                            Globals.instance().debugFlags);
+            NetworkThreads.instance().start("MulticastWriter",
+                    FxGlobals.instance().multicastWriter);
+            FxGlobals.instance().multicastWriter
+                    .startHeartbeat(snapshotPublisher::getSnapshot);
+        }
+    }
+
+    private void startUpdateReader() {
+        if (!Globals.instance().useNetwork) {
+            return;
+        }
         if (Globals.instance().useIPSocket) {
             FxGlobals.instance().socketReader = new FxSocketReader(this,
                     Globals.instance().host, Globals.instance().port,
                     Globals.instance().debugFlags);
             FxGlobals.instance().socketReader.connect();
+            FxGlobals.instance().socketReader.statusProperty().addListener(
+                    (observable, oldStatus, newStatus) -> {
+                updateStatusRow(
+                        newStatus == ReconnectSupervisor.Status.CONNECTED
+                        ? 1 : 0);
+            });
         } else {
             FxGlobals.instance().multicastReader
                     = new FxMulticastReader(Globals.instance().sessionAddr,
                             Globals.instance().port,
                             Globals.instance().debugFlags);
-            new Thread(FxGlobals.instance().multicastReader).start();
+            NetworkThreads.instance().start("MulticastReader",
+                    FxGlobals.instance().multicastReader);
         }
     }
 
@@ -835,61 +996,139 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
         return hockeyScoreboard;
     }
 
-    private DisplayableWithDigits getUpdateVariable(String name) {
-        if (name.equals(HockeyScoreboardXMLSpec.NAME_clock)) {
-            return clock;
-        } else if (name.equals(HockeyScoreboardXMLSpec.NAME_homeShotsOnGoal)) {
-            return homeShotsOnGoal;
-        } else if (name.equals(HockeyScoreboardXMLSpec.NAME_guestShotsOnGoal)) {
-            return guestShotsOnGoal;
-        } else if (name.equals(HockeyScoreboardXMLSpec.NAME_homeScore)) {
-            return homeScore;
-        } else if (name.equals(HockeyScoreboardXMLSpec.NAME_guestScore)) {
-            return guestScore;
-        } else if (name.equals(HockeyScoreboardXMLSpec.NAME_period)) {
-            return period;
-        } else if (name.equals(HockeyScoreboardXMLSpec.NAME_homePenalty1)) {
-            return homePenalty1;
-        } else if (name.equals(HockeyScoreboardXMLSpec.NAME_guestPenalty1)) {
-            return guestPenalty1;
-        } else if (name.equals(HockeyScoreboardXMLSpec.NAME_homePenalty2)) {
-            return homePenalty2;
-        } else if (name.equals(HockeyScoreboardXMLSpec.NAME_guestPenalty2)) {
-            return guestPenalty2;
-        } else if (HockeyScoreboardXMLSpec.isPlayerNumberVariable(name)) {
-            return getPlayerNumber(name);
-        } else if (name.equals(HockeyScoreboardXMLSpec.NAME_horn)) {
-            return horn;
+    /*
+     * Populate configVariables.  Each configurable variable gets an explicit
+     * getter; the TextNodes, which a remote display creates from the
+     * <config> elements it receives, also get a setter.
+     */
+    private void registerConfigVariables() {
+        configVariables = new ConfigVariableRegistry();
+        configVariables.register(HockeyScoreboardXMLSpec.NAME_clock,
+                XMLSpec.TYPE_Clock, () -> clock);
+        configVariables.register(HockeyScoreboardXMLSpec.NAME_homeScore,
+                XMLSpec.TYPE_TwoDigit, () -> homeScore);
+        configVariables.register(HockeyScoreboardXMLSpec.NAME_guestScore,
+                XMLSpec.TYPE_TwoDigit, () -> guestScore);
+        configVariables.register(HockeyScoreboardXMLSpec.NAME_homeShotsOnGoal,
+                XMLSpec.TYPE_TwoDigit, () -> homeShotsOnGoal);
+        configVariables.register(
+                HockeyScoreboardXMLSpec.NAME_guestShotsOnGoal,
+                XMLSpec.TYPE_TwoDigit, () -> guestShotsOnGoal);
+        configVariables.register(HockeyScoreboardXMLSpec.NAME_period,
+                XMLSpec.TYPE_SingleDigit, () -> period);
+        configVariables.register(HockeyScoreboardXMLSpec.NAME_homePenalty1,
+                HockeyScoreboardXMLSpec.TYPE_Penalty, () -> homePenalty1);
+        configVariables.register(HockeyScoreboardXMLSpec.NAME_guestPenalty1,
+                HockeyScoreboardXMLSpec.TYPE_Penalty, () -> guestPenalty1);
+        configVariables.register(HockeyScoreboardXMLSpec.NAME_homePenalty2,
+                HockeyScoreboardXMLSpec.TYPE_Penalty, () -> homePenalty2);
+        configVariables.register(HockeyScoreboardXMLSpec.NAME_guestPenalty2,
+                HockeyScoreboardXMLSpec.TYPE_Penalty, () -> guestPenalty2);
+        configVariables.register(HockeyScoreboardXMLSpec.NAME_homeText,
+                XMLSpec.TYPE_TextNode, () -> homeText,
+                v -> homeText = (TextNode) v);
+        configVariables.register(HockeyScoreboardXMLSpec.NAME_guestText,
+                XMLSpec.TYPE_TextNode, () -> guestText,
+                v -> guestText = (TextNode) v);
+        configVariables.register(HockeyScoreboardXMLSpec.NAME_periodText,
+                XMLSpec.TYPE_TextNode, () -> periodText,
+                v -> periodText = (TextNode) v);
+        configVariables.register(HockeyScoreboardXMLSpec.NAME_shotsOnGoalText,
+                XMLSpec.TYPE_TextNode, () -> shotsOnGoalText,
+                v -> shotsOnGoalText = (TextNode) v);
+        configVariables.register(HockeyScoreboardXMLSpec.NAME_homePenaltyText,
+                XMLSpec.TYPE_TextNode, () -> homePenaltyText,
+                v -> homePenaltyText = (TextNode) v);
+        configVariables.register(
+                HockeyScoreboardXMLSpec.NAME_guestPenaltyText,
+                XMLSpec.TYPE_TextNode, () -> guestPenaltyText,
+                v -> guestPenaltyText = (TextNode) v);
+        configVariables.register(
+                HockeyScoreboardXMLSpec.NAME_displaySocketText,
+                XMLSpec.TYPE_TextNode, () -> displaySocketText,
+                v -> displaySocketText = (TextNode) v);
+        configVariables.register(HockeyScoreboardXMLSpec.NAME_hockeyScoreboard,
+                HockeyScoreboardXMLSpec.TYPE_HockeyScoreboard,
+                () -> hockeyScoreboard);
+        configVariables.register(HockeyScoreboardXMLSpec.NAME_logoImageView,
+                HockeyScoreboardXMLSpec.TYPE_ImageView, () -> logoImageView);
+        for (String varName : XMLSpec.ConfigVariableNames) {
+            if (!configVariables.contains(varName)) {
+                LOGGER.severe("No accessor for config variable " + varName);
+            }
         }
-        return null;
     }
 
-    private DisplayableWithDigits getPlayerNumber(String name) {
-        switch (name) {
-            case HockeyScoreboardXMLSpec.NAME_homePenalty1playerNumber:
-                if (homePenalty1 != null) {
-                    return homePenalty1.getPlayerNumber();
-                }
-                break;
-            case HockeyScoreboardXMLSpec.NAME_guestPenalty1playerNumber:
-                if (guestPenalty1 != null) {
-                    return guestPenalty1.getPlayerNumber();
-                }
-                break;
-            case HockeyScoreboardXMLSpec.NAME_homePenalty2playerNumber:
-                if (homePenalty2 != null) {
-                    return homePenalty2.getPlayerNumber();
-                }
-                break;
-            case HockeyScoreboardXMLSpec.NAME_guestPenalty2playerNumber:
-                if (guestPenalty2 != null) {
-                    return guestPenalty2.getPlayerNumber();
-                }
-                break;
-            default:
-                break;
+    /*
+     * The scoreboard's nodes are views of the ScoreboardState.  Start it
+     * off with the values the nodes were created with, then keep the nodes
+     * in sync with it.  A master also sends every change on to the remote
+     * displays, and runs the clock and penalties with a CountdownEngine.
+     * The engine's ticks are fired from a thread of its own and applied on
+     * the JavaFX thread.
+     */
+    private void setupScoreboardState() {
+        scoreboardState = new ScoreboardState(XMLSpec.UpdateVariableNames);
+        Globals.instance().scoreboardState = scoreboardState;
+        for (String name : XMLSpec.UpdateVariableNames) {
+            DisplayableWithDigits updateVar = updateTargets.get(name);
+            if (updateVar != null && updateVar != horn) {
+                updateVar.sendMessageToSocket(name,
+                        String.valueOf(updateVar.getOverallValue()));
+            }
+        }
+        scoreboardState.addListener(this::applyStateChange);
+        if (!remoteDisplay) {
+            snapshotPublisher = new SnapshotPublisher(scoreboardState,
+                    updateTargets, HockeyScoreboardXMLSpec.NAME_horn);
+            scoreboardState.addListener(snapshotPublisher);
+            scoreboardState.addListener(new UpdateSender());
+            countdownEngine = new CountdownEngine(scoreboardState,
+                    Platform::runLater,
+                    NetworkThreads.instance().newScheduledExecutor(
+                            "CountdownEngine"));
+            countdownEngine.setClock(HockeyScoreboardXMLSpec.NAME_clock);
+            for (String name : new String[] {
+                    HockeyScoreboardXMLSpec.NAME_homePenalty1,
+                    HockeyScoreboardXMLSpec.NAME_guestPenalty1,
+                    HockeyScoreboardXMLSpec.NAME_homePenalty2,
+                    HockeyScoreboardXMLSpec.NAME_guestPenalty2}) {
+                countdownEngine.addPenalty(name);
+            }
+            countdownEngine.setOnClockExpired(this::soundHorn);
         }
-        return null;
+    }
+
+    /*
+     * Bring the node displaying a variable up to date with the state,
+     * unless that node is where the change came from.
+     */
+    private void applyStateChange(String name, int value, Object source) {
+        DisplayableWithDigits updateVar = updateTargets.get(name);
+        if (updateVar == null || updateVar == source) {
+            return;
+        }
+        if (updateVar == horn) {
+            if (value == Constants.instance().HORN_ON) {
+                soundHorn();
+            } else if (value == Constants.instance().HORN_OFF) {
+                horn.getMediaPlayer().stop();
+            }
+        } else {
+            updateVar.applyState(value);
+        }
+    }
+
+    private void registerPenalty(String name, String playerNumberName,
+            Penalty penalty) {
+        if (penalty != null) {
+            updateTargets.register(name, penalty);
+            updateTargets.register(playerNumberName, penalty.getPlayerNumber());
+        }
+    }
+
+    private DisplayableWithDigits getUpdateVariable(String name) {
+        return updateTargets.get(name);
     }
 
     private ImageView newImageView(String name, String url) {
@@ -911,7 +1150,7 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
             imageView.setLayoutX(layoutX);
             imageView.setLayoutY(layoutY);
             imageView.setPreserveRatio(true);
-            getChildren().add(logoImageView);
+            staticLayer.getChildren().add(logoImageView);
         }
     }
 
@@ -923,21 +1162,10 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
     }
 
     private void startStopAction() {
-        Animation.Status status = clockTimer.getTimeline().getStatus();
-        if (status == Animation.Status.RUNNING) {
-            clock.getTimer().stop();
-            homePenalty1Timer.stop();
-            homePenalty2Timer.stop();
-            guestPenalty1Timer.stop();
-            guestPenalty2Timer.stop();
+        if (countdownEngine.isRunning()) {
+            countdownEngine.stop();
         } else {
-            if (clock.getOverallValue() != 0) {
-                clock.getTimer().start();
-                homePenalty1Timer.start();
-                homePenalty2Timer.start();
-                guestPenalty1Timer.start();
-                guestPenalty2Timer.start();
-            }
+            countdownEngine.start();
         }
     }
 
@@ -976,7 +1204,19 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
  ****************************************************************************/
     @Override
     public void handleUpdate(String msg) {
+        long start = RenderStats.instance().beginHandleUpdate();
         hockeyScoreboardXMLInput.readUpdateStr(msg);
+        RenderStats.instance().endHandleUpdate(start);
+    }
+
+    @Override
+    public void beginUpdates() {
+        coalescingInputInterface.beginUpdates();
+    }
+
+    @Override
+    public int endUpdates() {
+        return coalescingInputInterface.endUpdates();
     }
 
     /*   
@@ -990,14 +1230,7 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
          * return the reference to the real object.
          */
         private Object getConfigVariable(String name) {
-            if (name != null && !name.equals("null")) {
-                try {
-                    return configVariableMap.get(name).get(hockeyScoreboard);
-                } catch (IllegalAccessException | IllegalArgumentException e) {
-                    LOGGER.severe(ExceptionStackTraceAsString(e));
-                }
-            }
-            return null;
+            return configVariables.get(name);
         }
 
         /*
@@ -1057,16 +1290,15 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
         }
 
         /*
-         * Creates a new TextNode and uses reflection to update the
-         * configuration variable specified by "name" with this new TetxNode.
+         * Creates a new TextNode and updates the configuration variable
+         * specified by "name" with this new TetxNode.
          */
         private TextNode newTextNode(String name, String content,
                 double height) {
-            Field field = configVariableMap.get(name);
             TextNode textNode = new TextNode(name, content, height);
             try {
-                field.set(hockeyScoreboard, textNode);
-            } catch (IllegalAccessException | IllegalArgumentException e) {
+                configVariables.set(name, textNode);
+            } catch (IllegalArgumentException e) {
                 LOGGER.severe(ExceptionStackTraceAsString(e));
             }
             return textNode;
@@ -1086,7 +1318,11 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
             textNode.setLayoutY(computeRealLayoutY(layoutY));
             // Use binding instead here?
             textNode.setBackgroundColor(backgroundColor);
-            getChildren().add(textNode);
+            if (textNode == displaySocketText) {
+                dynamicLayer.getChildren().add(textNode);
+            } else {
+                staticLayer.getChildren().add(textNode);
+            }
         }
 
         @Override
@@ -1103,7 +1339,7 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
                 dwd.setAlignWithStr(alignWithStr);
                 dwd.setLayoutX(layoutX);
                 dwd.setLayoutY(computeRealLayoutY(layoutY));
-                getChildren().add(dwd);
+                dynamicLayer.getChildren().add(dwd);
             }
         }
 
@@ -1124,18 +1360,26 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
 
         @Override
         public void updateVariable(String name, String overallValueStr) {
-            DisplayableWithDigits updateVar = getUpdateVariable(name);
-            int overallValue = Integer.parseInt(overallValueStr);
-            if (updateVar != null) {
-                if (updateVar == horn) {
-                    if (overallValue == Constants.instance().HORN_ON) {
-                        soundHorn();
-                    } else if (overallValue == Constants.instance().HORN_OFF) {
-                        horn.getMediaPlayer().stop();
-                    }
-                } else {
-                    updateVar.setOverallValueViaUpdate(overallValueStr);
-                }
+            updateVariable(name, Integer.parseInt(overallValueStr));
+        }
+
+        @Override
+        public void updateVariable(String name, int overallValue) {
+            if (scoreboardState.contains(name)) {
+                scoreboardState.set(name, overallValue);
+            }
+        }
+
+        /*
+         * The node restores the value, and through it the state, itself.
+         */
+        @Override
+        public void restoreVariable(String name, String valueStr) {
+            DisplayableWithDigits updateVar = updateTargets.get(name);
+            if (updateVar == null) {
+                updateVariable(name, valueStr);
+            } else if (updateVar != horn) {
+                updateVar.setOverallValueViaSnapshot(valueStr);
             }
         }
 
@@ -1211,48 +1455,46 @@ public abstract class HockeyScoreboard extends ScoreboardWithClock
         }
 
         @Override
-        public int getColorVal(Object obj, Method method) {
+        public Object getConfigVariable(String name) {
+            return configVariables.get(name);
+        }
+
+        @Override
+        public String getConfigVariableType(String name) {
+            return configVariables.getType(name);
+        }
+
+        /*
+         * The background color of a Scoreboard or TextNode, or the digit
+         * color of a DisplayableWithDigits.
+         */
+        @Override
+        public int getColorVal(Object obj) {
             Color color = Color.PURPLE;
-            try {
-                color = (Color) method.invoke(obj);
-            } catch (IllegalAccessException | IllegalArgumentException
-                    | InvocationTargetException e) {
-                LOGGER.severe(ExceptionStackTraceAsString(e));
+            if (obj instanceof Scoreboard) {
+                color = ((Scoreboard) obj).getBackgroundColor();
+            } else if (obj instanceof DisplayableWithDigits) {
+                color = ((DisplayableWithDigits) obj).getColor();
+            } else if (obj instanceof TextNode) {
+                color = ((TextNode) obj).getBackgroundColor();
             }
             return FXUtils.FXColorToIntValue(color);
         }
 
         @Override
         public String getFieldName(Object displayable) {
-            if (displayable != null) {
-                for (Field field : hockeyScoreboard.getClass().getFields()) {
-                    try {
-                        Object fieldObj = field.get(hockeyScoreboard);
-                        if (fieldObj instanceof Displayable) {
-                            if (fieldObj.equals(displayable)) {
-                                return field.getName();
-                            }
-                        }
-                    } catch (IllegalAccessException
-                            | IllegalArgumentException e) {
-                        LOGGER.severe(ExceptionStackTraceAsString(e));
-                    }
-                }
+            if (displayable instanceof Displayable) {
+                return configVariables.getName(displayable);
             }
             return null;
         }
 
         @Override
-        public int getPlayerNumber(Object obj, Method method) {
-            TwoDigit playerNumber = null;
-            try {
-                playerNumber = (TwoDigit) method.invoke(obj);
-            } catch (IllegalAccessException | IllegalArgumentException
-                    | InvocationTargetException e) {
-                LOGGER.severe(ExceptionStackTraceAsString(e));
-                return 0;
+        public int getPlayerNumber(Object obj) {
+            if (obj instanceof Penalty) {
+                return ((Penalty) obj).getPlayerNumber().getOverallValue();
             }
-            return playerNumber.getOverallValue();
+            return 0;
         }
     }
 }
@@ -34,11 +34,9 @@ package com.jtconnors.scoreboard.fx2.framework.hockey;
 import java.lang.invoke.MethodHandles;
 import com.jtconnors.scoreboard.fx2.framework.XMLOutput;
 import com.jtconnors.scoreboard.common.LayoutXOptions;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.logging.Logger;
 import com.jtconnors.scoreboard.common.ScoreboardOutputInterface;
-import com.jtconnors.scoreboard.common.Utils;
+import com.jtconnors.scoreboard.fx2.framework.DisplayableWithDigits;
 import com.jtconnors.scoreboard.fx2.framework.XMLSpec;
 
 /*
@@ -61,32 +59,31 @@ public class HockeyScoreboardXMLOutput extends XMLOutput {
      */
     @Override
     public void dumpDisplayableNodes() {
-        Field field;
-        for (String fieldName : XMLSpec.ConfigVariableNames) {
-            try {
-                field = scoreboardClass.getField(fieldName);
-                String typeStr = field.getType().getSimpleName();
-                switch (typeStr) {
-                    case XMLSpec.TYPE_TextNode:
-                        dumpTextNode(field);
-                        break;
-                    case XMLSpec.TYPE_SingleDigit:
-                    case XMLSpec.TYPE_TwoDigit:
-                    case HockeyScoreboardXMLSpec.TYPE_Penalty:
-                    case XMLSpec.TYPE_Clock:
-                        dumpDisplayableWithDigits(field);
-                        break;
-                    case HockeyScoreboardXMLSpec.TYPE_HockeyScoreboard:
-                        dumpHockeyScoreboard(field);
-                        break;
-                    case HockeyScoreboardXMLSpec.TYPE_ImageView:
-                        dumpImageView(field);
-                        break;
-                    default:
-                        break;
-                }
-            }  catch (NoSuchFieldException | SecurityException e) {
-                LOGGER.info(Utils.ExceptionStackTraceAsString(e));
+        for (String variableName : XMLSpec.ConfigVariableNames) {
+            String typeStr = scoreboardOutputInterface.getConfigVariableType(
+                    variableName);
+            if (typeStr == null) {
+                LOGGER.info("No config variable named " + variableName);
+                continue;
+            }
+            switch (typeStr) {
+                case XMLSpec.TYPE_TextNode:
+                    dumpTextNode(variableName);
+                    break;
+                case XMLSpec.TYPE_SingleDigit:
+                case XMLSpec.TYPE_TwoDigit:
+                case HockeyScoreboardXMLSpec.TYPE_Penalty:
+                case XMLSpec.TYPE_Clock:
+                    dumpDisplayableWithDigits(variableName);
+                    break;
+                case HockeyScoreboardXMLSpec.TYPE_HockeyScoreboard:
+                    dumpHockeyScoreboard(variableName);
+                    break;
+                case HockeyScoreboardXMLSpec.TYPE_ImageView:
+                    dumpImageView(variableName);
+                    break;
+                default:
+                    break;
             }
         }
     }
@@ -96,75 +93,46 @@ public class HockeyScoreboardXMLOutput extends XMLOutput {
      * XMLOuput super class
      */
     @Override
-    public void dumpDisplayableWithDigits(Field field) {
-        try {
-            Class fieldClass = field.get(scoreboard).getClass();
-            String variableName = field.getName();
-            Double layoutY = (Double)
-                invokeMethod(field, XMLSpec.METHOD_getLayoutY) /
-                    scoreboardHeight;
-            LayoutXOptions layoutXOption = (LayoutXOptions)
-                invokeMethod(field, XMLSpec.METHOD_getLayoutXOption);
-            Object alignWith = invokeMethod(field, XMLSpec.METHOD_getAlignWith);
-            String alignWithStr =
-                scoreboardOutputInterface.getFieldName(alignWith);
-            Double digitHeight = (Double)
-                invokeMethod(field, XMLSpec.METHOD_getDigitHeight) /
-                    scoreboardHeight;
-            Method method = fieldClass.getMethod(XMLSpec.METHOD_getColor);
-            int colorVal = scoreboardOutputInterface.getColorVal(
-                field.get(scoreboard), method);
-            method = fieldClass.getMethod(XMLSpec.METHOD_getOverallValue);
-            int overallValue = (Integer)
-                invokeMethod(field, XMLSpec.METHOD_getOverallValue);
-            System.out.println(
-                XMLSpec.configDisplayableWithDigitsStr(variableName,
-                layoutY, layoutXOption.toString(), alignWithStr,
-                digitHeight, overallValue));
-        } catch (IllegalAccessException | IllegalArgumentException |
-                NoSuchMethodException | SecurityException e) {
-            LOGGER.severe(Utils.ExceptionStackTraceAsString(e));
+    public void dumpDisplayableWithDigits(String variableName) {
+        if (!(getConfigVariable(variableName)
+                instanceof DisplayableWithDigits dwd)) {
+            LOGGER.info(variableName + " is not a DisplayableWithDigits");
+            return;
         }
+        Double layoutY = dwd.getLayoutY() / scoreboardHeight;
+        LayoutXOptions layoutXOption = dwd.getLayoutXOption();
+        String alignWithStr = scoreboardOutputInterface.getFieldName(
+                dwd.getAlignWith());
+        Double digitHeight = dwd.getDigitHeight() / scoreboardHeight;
+        int overallValue = dwd.getOverallValue();
+        System.out.println(
+            XMLSpec.configDisplayableWithDigitsStr(variableName,
+            layoutY, String.valueOf(layoutXOption), alignWithStr,
+            digitHeight, overallValue));
     }
 
-    public void dumpHockeyScoreboard(Field field) {
-        try {
-            Class fieldClass = field.get(scoreboard).getClass();
-            String variableName = field.getName();
-            Method method = fieldClass.getMethod(
-                    XMLSpec.METHOD_getBackgroundColor);
-            int backgroundColorVal = scoreboardOutputInterface.getColorVal(
-                    scoreboard, method);
-            System.out.println(
-                    HockeyScoreboardXMLSpec.configHockeyScoreboardStr(
-                    variableName, backgroundColorVal));
-        } catch (IllegalAccessException | IllegalArgumentException |
-                NoSuchMethodException | SecurityException e) {
-            LOGGER.info(Utils.ExceptionStackTraceAsString(e));
-        }
+    public void dumpHockeyScoreboard(String variableName) {
+        int backgroundColorVal = scoreboardOutputInterface.getColorVal(
+                getConfigVariable(variableName));
+        System.out.println(
+                HockeyScoreboardXMLSpec.configHockeyScoreboardStr(
+                variableName, backgroundColorVal));
     }
 
-    public void dumpImageView(Field field) {
-        try {
-            if (field.get(scoreboard) != null) {
-                Class fieldClass = field.get(scoreboard).getClass();
-                String variableName = field.getName();
-                /*
-                 * Hard code these.  JavaFX ImageView class would have to
-                 * be extended in order to use reflection to get the
-                 * values below.
-                 */
-                String url = "/scoreboard/images/logo.png";
-                LayoutXOptions layoutXOption = LayoutXOptions.CENTER_BETWEEN;
-                System.out.println(
-                        HockeyScoreboardXMLSpec.configImageViewStr(
-                            variableName, url,
-                            layoutXOption.toString(),
-                            HockeyScoreboardXMLSpec.NAME_homePenalty1,
-                            HockeyScoreboardXMLSpec.NAME_guestPenalty2));
-            }
-        } catch (IllegalAccessException | IllegalArgumentException e) {
-            LOGGER.info(Utils.ExceptionStackTraceAsString(e));
+    public void dumpImageView(String variableName) {
+        if (getConfigVariable(variableName) != null) {
+            /*
+             * Hard code these.  JavaFX ImageView class would have to
+             * be extended in order to get the values below.
+             */
+            String url = "/scoreboard/images/logo.png";
+            LayoutXOptions layoutXOption = LayoutXOptions.CENTER_BETWEEN;
+            System.out.println(
+                    HockeyScoreboardXMLSpec.configImageViewStr(
+                        variableName, url,
+                        layoutXOption.toString(),
+                        HockeyScoreboardXMLSpec.NAME_homePenalty1,
+                        HockeyScoreboardXMLSpec.NAME_guestPenalty2));
         }
     }
 }
@@ -249,6 +249,7 @@ public class HockeyScoreboardXMLSpec extends XMLSpec {
         for (String s : HornVariableNames) {
             UpdateVariableNames.add(s);
         }    
+        indexUpdateVariables();
     }
 
     /**
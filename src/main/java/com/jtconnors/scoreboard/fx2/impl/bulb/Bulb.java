@@ -44,12 +44,17 @@ import javafx.scene.paint.Stop;
 import javafx.scene.shape.Circle;
 import com.jtconnors.scoreboard.common.Globals;
 import com.jtconnors.scoreboard.fx2.framework.FxConstants;
+import com.jtconnors.scoreboard.fx2.framework.LruCache;
 
 public class Bulb extends Circle {
 
     private static final double DEFAULT_RADIUS = 30f;
+    /*
+     * The fill for each color is shared by all Bulbs of that color
+     */
+    private static final LruCache<Color, RadialGradient> fillPatterns =
+            new LruCache<>(FxConstants.instance().BULB_CACHE_SIZE);
     private RadialGradient fillPattern;
-    private Stop[] stops;
 
     public Bulb() {
         this(DEFAULT_RADIUS, DEFAULT_RADIUS, DEFAULT_RADIUS,
@@ -73,12 +78,16 @@ public class Bulb extends Circle {
     }
 
     private void updateBulbDisplay() {
-        stops = new Stop[] {
-            new Stop(0f, Color.WHITE),
-            new Stop(1.0f, getColor())
-        };
-        fillPattern = new RadialGradient(0, 0, .25f, .25f, .7f,
-            true, CycleMethod.NO_CYCLE, stops);
+        fillPattern = fillPatterns.get(getColor());
+        if (fillPattern == null) {
+            Stop[] stops = new Stop[] {
+                new Stop(0f, Color.WHITE),
+                new Stop(1.0f, getColor())
+            };
+            fillPattern = new RadialGradient(0, 0, .25f, .25f, .7f,
+                true, CycleMethod.NO_CYCLE, stops);
+            fillPatterns.put(getColor(), fillPattern);
+        }
         setFill(fillPattern);
         setOpacity(isBulbLit() ? 1.0d : Globals.instance().unlitOpacity);
     }
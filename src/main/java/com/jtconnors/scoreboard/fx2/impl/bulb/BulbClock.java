@@ -33,10 +33,8 @@ package com.jtconnors.scoreboard.fx2.impl.bulb;
 
 import javafx.scene.paint.Color;
 import com.jtconnors.scoreboard.common.Constants;
-import com.jtconnors.scoreboard.fx2.framework.Timer;
 import com.jtconnors.scoreboard.fx2.framework.Clock;
 import com.jtconnors.scoreboard.fx2.framework.FxConstants;
-import com.jtconnors.scoreboard.fx2.framework.ScoreboardWithClock;
 
 /*
  * This class extends the abstract Clock class and must be written in
@@ -52,17 +50,15 @@ import com.jtconnors.scoreboard.fx2.framework.ScoreboardWithClock;
  */
 public class BulbClock extends Clock {
 
-    public BulbClock(String varName, ScoreboardWithClock scoreboardWithClock,
-            Timer timer) {
-        this(varName, scoreboardWithClock, timer,
+    public BulbClock(String varName) {
+        this(varName,
                 FxConstants.instance().DEFAULT_DIGIT_COLOR,
                 Constants.instance().DEFAULT_DIGIT_HEIGHT);
     }
 
-    public BulbClock(String varName, ScoreboardWithClock scoreboardWithClock,
-            Timer timer, Color digitColor,
+    public BulbClock(String varName, Color digitColor,
             double digitHeight) {
-        super(varName, scoreboardWithClock, timer, digitColor, digitHeight);
+        super(varName, digitColor, digitHeight);
         /*
          * The following variables are implementation specific and must
          * be changed for each implementation of this class.
@@ -36,6 +36,7 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import com.jtconnors.scoreboard.common.Constants;
 import com.jtconnors.scoreboard.fx2.framework.Digit;
+import com.jtconnors.scoreboard.fx2.framework.DigitUpdateStats;
 import com.jtconnors.scoreboard.common.Globals;
 import com.jtconnors.scoreboard.fx2.framework.FxConstants;
 
@@ -122,6 +123,31 @@ public class BulbDigit extends Digit {
         {0, 8}, {1, 8}, {2, 8}, {3, 8}, {4, 8},
     };
 
+    /*
+     * Access to the bulb layout and bit masks above, for other digit
+     * implementations drawing the same 27 bulb pattern, e.g.
+     * scoreboard.fx2.impl.canvas.CanvasDigit.
+     */
+    public static int getBulbCount() {
+        return bulbBit.length;
+    }
+
+    public static boolean isBulbLit(int value, int bulb) {
+        return (digitBitMask[value] & bulbBit[bulb]) != 0;
+    }
+
+    public static int getBulbMask(int value) {
+        return digitBitMask[value];
+    }
+
+    public static double getBulbColumn(int bulb) {
+        return bulbOffset[bulb][0];
+    }
+
+    public static double getBulbRow(int bulb) {
+        return bulbOffset[bulb][1];
+    }
+
     /*
      * Abstract methods from Digit that must be defined.
      */
@@ -134,15 +160,35 @@ public class BulbDigit extends Digit {
 
     @Override
     protected void refreshOnDigitHeightChange(double digitHeight) {
-        getChildren().clear();
-        init();
+        /*
+         * Reuse the existing Bulbs, only their geometry changes
+         */
+        bulbRadius = digitHeight / 18;
+        for (int i=0; i<NBULBS; i++) {
+            bulbs[i].setCenterX(bulbOffset[i][0] * bulbRadius * 2 + bulbRadius);
+            bulbs[i].setCenterY(bulbOffset[i][1] * bulbRadius * 2 + bulbRadius);
+            bulbs[i].setRadius(bulbRadius);
+        }
+        boundingRect.setWidth(bulbRadius * 10);
+        boundingRect.setHeight(bulbRadius * 18);
     }
 
     @Override
     protected void refreshOnValueChange(int value) {
+        /*
+         * Only touch the bulbs which change state
+         */
+        int changed = (digitBitMask[value] ^ litMask) & ALL_BULBS;
+        if (changed == 0) {
+            return;
+        }
         for (int i=0; i<NBULBS; i++) {
-           bulbs[i].setBulbLit(((digitBitMask[value] & bulbBit[i]) != 0));
+            if ((changed & bulbBit[i]) != 0) {
+                bulbs[i].setBulbLit(((digitBitMask[value] & bulbBit[i]) != 0));
+            }
         }
+        litMask = digitBitMask[value];
+        DigitUpdateStats.instance().countMutations(Integer.bitCount(changed));
     }
 
     /*
@@ -155,7 +201,12 @@ public class BulbDigit extends Digit {
      * Implementation variables
      */
     private static final int NBULBS = bulbBit.length;
+    private static final int ALL_BULBS = (1 << NBULBS) - 1;
     private Bulb[] bulbs;
+    /*
+     * digitBitMask of the value the bulbs are currently showing
+     */
+    private int litMask;
     private Rectangle boundingRect;
 
     /*
@@ -200,6 +251,7 @@ public class BulbDigit extends Digit {
            bulbs[i].setBulbLit(
                    ((digitBitMask[displayValue] & bulbBit[i]) != 0));
         }
+        litMask = digitBitMask[displayValue];
         Group group = new Group();
         group.getChildren().addAll(bulbs);
         return group;
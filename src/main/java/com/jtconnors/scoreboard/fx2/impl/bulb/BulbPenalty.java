@@ -34,13 +34,13 @@ package com.jtconnors.scoreboard.fx2.impl.bulb;
 import javafx.scene.paint.Color;
 import com.jtconnors.scoreboard.common.Constants;
 import com.jtconnors.scoreboard.fx2.framework.FxConstants;
-import com.jtconnors.scoreboard.fx2.framework.Timer;
 import com.jtconnors.scoreboard.fx2.framework.Penalty;
 
 /*
  * This class extends the abstract Penalty class and must be written in
  * the following way:
- *    1. The constructor must call super(timer, digitColor, digitHeight) first.
+ *    1. The constructor must call super(varName, digitColor, digitHeight)
+ *       first.
  *    2. A Specific implementation for the abstract Digit class must be created.
  *       Once done, the Digit variables (defined in the
  *       super class) must be assigned and allocated an object
@@ -51,15 +51,15 @@ import com.jtconnors.scoreboard.fx2.framework.Penalty;
  */
 public class BulbPenalty extends Penalty {
 
-    public BulbPenalty(String varName, Timer timer) {
-        this(varName, timer,
+    public BulbPenalty(String varName) {
+        this(varName,
                 FxConstants.instance().DEFAULT_DIGIT_COLOR,
                 Constants.instance().DEFAULT_DIGIT_HEIGHT);
     }
 
-    public BulbPenalty(String varName, Timer timer, Color digitColor,
+    public BulbPenalty(String varName, Color digitColor,
             double digitHeight) {
-        super(varName, timer, digitColor, digitHeight);
+        super(varName, digitColor, digitHeight);
         /*
          * The following variables are implementation specific and must
          * be changed for each implementation of this class.
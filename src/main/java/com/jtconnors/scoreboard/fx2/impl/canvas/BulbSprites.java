@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.fx2.impl.canvas;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import com.jtconnors.scoreboard.fx2.framework.FxConstants;
+import com.jtconnors.scoreboard.fx2.framework.LruCache;
+
+/*
+ * Pre-rendered images of a single bulb, lit and unlit, for a given color
+ * and radius.  Each image reproduces the fill of a
+ * scoreboard.fx2.impl.bulb.Bulb: a radial gradient from white, centered
+ * up and to the left, out to the bulb color, at full opacity when lit and
+ * at unlitOpacity when not.
+ *
+ * Images are computed once per color, size and opacity and shared by every
+ * CanvasDigit using them.  The least recently used are dropped once
+ * FxConstants.BULB_CACHE_SIZE are held.  Only to be used on the JavaFX
+ * thread.
+ */
+public class BulbSprites {
+
+    private static final LruCache<String, Image> sprites =
+            new LruCache<>(FxConstants.instance().BULB_CACHE_SIZE);
+
+    private BulbSprites() {
+    }
+
+    /*
+     * Width and height, in pixels, of the images for a bulb of the given
+     * radius.
+     */
+    public static int getSize(double radius) {
+        return Math.max(1, (int) Math.ceil(radius * 2));
+    }
+
+    public static Image get(Color color, double radius, boolean lit,
+            double unlitOpacity) {
+        int size = getSize(radius);
+        double opacity = lit ? 1.0d : unlitOpacity;
+        String key = color + ":" + size + ":" + opacity;
+        Image sprite = sprites.get(key);
+        if (sprite == null) {
+            sprite = render(color, size, opacity);
+            sprites.put(key, sprite);
+        }
+        return sprite;
+    }
+
+    /*
+     * Mirrors new RadialGradient(0, 0, .25f, .25f, .7f, true,
+     * CycleMethod.NO_CYCLE, new Stop(0f, Color.WHITE), new Stop(1.0f, color))
+     * clipped to a circle, with one pixel of antialiasing at the edge.
+     */
+    private static Image render(Color color, int size, double opacity) {
+        WritableImage image = new WritableImage(size, size);
+        PixelWriter pixelWriter = image.getPixelWriter();
+        double half = size / 2d;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                double px = x + 0.5d;
+                double py = y + 0.5d;
+                double edgeDistance = half - Math.hypot(px - half, py - half);
+                double coverage = Math.min(1d, Math.max(0d,
+                        edgeDistance + 0.5d));
+                if (coverage == 0d) {
+                    pixelWriter.setArgb(x, y, 0);
+                    continue;
+                }
+                double t = Math.min(1d, Math.hypot(px / size - 0.25d,
+                        py / size - 0.25d) / 0.7d);
+                Color c = Color.WHITE.interpolate(color, t);
+                pixelWriter.setColor(x, y, new Color(c.getRed(),
+                        c.getGreen(), c.getBlue(),
+                        c.getOpacity() * coverage * opacity));
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.fx2.impl.canvas;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import com.jtconnors.scoreboard.common.Constants;
+import com.jtconnors.scoreboard.common.Globals;
+import com.jtconnors.scoreboard.fx2.framework.Digit;
+import com.jtconnors.scoreboard.fx2.framework.DigitUpdateStats;
+import com.jtconnors.scoreboard.fx2.framework.FxConstants;
+import com.jtconnors.scoreboard.fx2.impl.bulb.BulbDigit;
+
+/*
+ * A Digit which looks like a scoreboard.fx2.impl.bulb.BulbDigit but draws
+ * its 27 bulbs into a single Canvas instead of making each one a Circle
+ * node with its own gradient fill.  The bulbs are drawn from pre-rendered
+ * BulbSprites, and when the value changes only the bulbs which change
+ * state are redrawn.
+ */
+public class CanvasDigit extends Digit {
+
+    /*
+     * Abstract methods from Digit that must be defined.
+     */
+    @Override
+    protected void refreshOnColorChange(Color color) {
+        loadSprites();
+        drawBulbs(drawnMask, true);
+    }
+
+    @Override
+    protected void refreshOnDigitHeightChange(double digitHeight) {
+        /*
+         * Reuse the existing Canvas, resizing it and redrawing all bulbs
+         */
+        bulbRadius = digitHeight / 18;
+        canvas.setWidth(bulbRadius * 10);
+        canvas.setHeight(bulbRadius * 18);
+        canvas.getGraphicsContext2D().clearRect(0, 0,
+                canvas.getWidth(), canvas.getHeight());
+        loadSprites();
+        drawBulbs(drawnMask, true);
+        boundingRect.setWidth(canvas.getWidth());
+        boundingRect.setHeight(canvas.getHeight());
+    }
+
+    @Override
+    protected void refreshOnValueChange(int value) {
+        drawBulbs(BulbDigit.getBulbMask(value), false);
+    }
+
+    /*
+     * Same as BulbDigit.getBulbRadius()
+     */
+    private double bulbRadius;
+    public double getBulbRadius() { return bulbRadius; }
+
+    /*
+     * Implementation variables
+     */
+    private static final int NBULBS = BulbDigit.getBulbCount();
+    private Canvas canvas;
+    private Image litSprite;
+    private Image unlitSprite;
+    /*
+     * Bit mask of the bulbs currently drawn lit
+     */
+    private int drawnMask;
+    private Rectangle boundingRect;
+
+    /*
+     * Constructors and helpers
+     */
+    public CanvasDigit() {
+        this(FxConstants.instance().DEFAULT_DIGIT_COLOR,
+                Constants.instance().DEFAULT_DIGIT_HEIGHT, 0,
+                Constants.instance().MIN_DIGIT_VALUE,
+                Constants.instance().MAX_DIGIT_VALUE);
+    }
+
+    public CanvasDigit(Color digitColor, double digitHeight) {
+        this(digitColor, digitHeight, 0,
+                Constants.instance().MIN_DIGIT_VALUE,
+                Constants.instance().MAX_DIGIT_VALUE);
+    }
+
+    public CanvasDigit(Color digitColor, double digitHeight, int value,
+            int minValue, int maxValue) {
+        super(digitColor, digitHeight, value, minValue, maxValue);
+        init();
+    }
+
+    private void init() {
+        bulbRadius = getDigitHeight() / 18;
+        canvas = new Canvas(bulbRadius * 10, bulbRadius * 18);
+        loadSprites();
+        int displayValue = getValue();
+        if ((displayValue == 0) && (isBlankIfZero())) {
+            displayValue = Constants.instance().BLANK_DIGIT;
+        }
+        drawBulbs(BulbDigit.getBulbMask(displayValue), true);
+        getChildren().add(canvas);
+        getChildren().add(createBoundingRectangle());
+    }
+
+    private void loadSprites() {
+        litSprite = BulbSprites.get(getColor(), bulbRadius, true,
+                Globals.instance().unlitOpacity);
+        unlitSprite = BulbSprites.get(getColor(), bulbRadius, false,
+                Globals.instance().unlitOpacity);
+    }
+
+    /*
+     * Draw the bulbs whose state differs between drawnMask and mask, or
+     * all of them if redrawAll is set.
+     */
+    private void drawBulbs(int mask, boolean redrawAll) {
+        int changed = redrawAll ? -1 : (mask ^ drawnMask);
+        if (changed == 0) {
+            return;
+        }
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double diameter = bulbRadius * 2;
+        for (int i = 0; i < NBULBS; i++) {
+            int bit = 1 << i;
+            if ((changed & bit) != 0) {
+                double x = BulbDigit.getBulbColumn(i) * diameter;
+                double y = BulbDigit.getBulbRow(i) * diameter;
+                gc.clearRect(x, y, diameter, diameter);
+                gc.drawImage((mask & bit) != 0 ? litSprite : unlitSprite,
+                        x, y, diameter, diameter);
+            }
+        }
+        drawnMask = mask;
+        DigitUpdateStats.instance().countMutations(
+                Integer.bitCount(changed & ((1 << NBULBS) - 1)));
+    }
+
+    private Rectangle createBoundingRectangle() {
+        boundingRect = new Rectangle();
+        boundingRect.setWidth(getLayoutBounds().getWidth());
+        boundingRect.setHeight(getLayoutBounds().getHeight());
+        boundingRect.setFill(Color.TRANSPARENT);
+        return boundingRect;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.fx2.impl.glyph;
+
+import java.util.HashMap;
+import java.util.Map;
+import javafx.scene.Node;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.paint.Color;
+import com.jtconnors.scoreboard.common.Constants;
+import com.jtconnors.scoreboard.fx2.framework.GlyphStyle;
+
+/*
+ * GlyphStyle drawing digits with the bundled images,
+ * /scoreboard/images/<value>-red-digit.png and <value>-gold-digit.png
+ * (blank-red-digit.png and blank-gold-digit.png for a blank digit),
+ * scaled to the digit height.  The images only come in those two colors,
+ * so a digit is drawn with whichever of them is closer in hue to its
+ * color: red for FxConstants.DEFAULT_DIGIT_COLOR, gold for
+ * DEFAULT_SECONDARY_COLOR (goldenrod).
+ *
+ * This class follows the Singleton design pattern.  Like GlyphCache, it
+ * must only be used on the JavaFX thread.
+ */
+public class ImageGlyphStyle implements GlyphStyle {
+    private ImageGlyphStyle() {}
+
+    private static class LazyHolder {
+        private static final ImageGlyphStyle INSTANCE = new ImageGlyphStyle();
+    }
+
+    public static ImageGlyphStyle instance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    private static final String IMAGE_DIR = "/scoreboard/images/";
+    private static final double GOLD_HUE = Color.GOLDENROD.getHue();
+
+    /*
+     * The digit images, loaded on first use
+     */
+    private final Map<String, Image> images = new HashMap<>();
+
+    @Override
+    public String getName() {
+        return "image";
+    }
+
+    @Override
+    public Node createGlyph(Color color, double digitHeight, int value) {
+        String name = (value == Constants.instance().BLANK_DIGIT
+                ? "blank" : String.valueOf(value)) + "-" +
+                (isCloserToRed(color) ? "red" : "gold") + "-digit.png";
+        ImageView imageView = new ImageView(images.computeIfAbsent(name,
+                n -> new Image(IMAGE_DIR + n)));
+        imageView.setPreserveRatio(true);
+        imageView.setSmooth(true);
+        imageView.setFitHeight(digitHeight);
+        return imageView;
+    }
+
+    private static boolean isCloserToRed(Color color) {
+        double hue = color.getHue();
+        double redDistance = Math.min(hue, 360 - hue);
+        return redDistance <= Math.abs(hue - GOLD_HUE);
+    }
+}
@@ -31,91 +31,64 @@
 
 package com.jtconnors.scoreboard.fx2.impl.led;
 
-import javafx.scene.Group;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.SVGPath;
 import com.jtconnors.scoreboard.common.Constants;
 import com.jtconnors.scoreboard.fx2.framework.Digit;
+import com.jtconnors.scoreboard.fx2.framework.DigitUpdateStats;
 import com.jtconnors.scoreboard.common.Globals;
 import com.jtconnors.scoreboard.fx2.framework.FxConstants;
 
+/*
+ * A 7 segment LED digit (see SegmentGeometry for the layout of the
+ * segments).  It is drawn as two paths: all 7 segments at unlitOpacity,
+ * with the segments lit for the current value drawn over them.  Changing
+ * the value swaps the content of the lit path for the value's path
+ * from SegmentGeometry.
+ */
 public class LEDDigit extends Digit {
     
-    /*
-     * An LEDDigitNode is comprised of 7 segments.  The individual
-     * Segments can be addressed as follows:
-     *
-     *      000000000000
-     *     1            2
-     *     1            2
-     *     1            2
-     *      333333333333
-     *     4            5
-     *     4            5
-     *     4            5
-     *      666666666666
-     *
-     * A bitmask representing the 7 segments is stored in an Integer.
-     * Setting a particular bit to 1 makes its corresponding
-     * segment visible.  Here are the bitmasks for each addressable segment:
-     */
-    private static final int[] segmentBit = {
-        0x1,         // segment 0
-        0x2,         // segment 1
-        0x4,         // segment 2
-        0x8,         // segment 3
-        0x10,        // segment 4
-        0x20,        // segment 5
-        0x40,        // segment 6
-    };
-
-    /*
-     * Bit mask determines which segments should be turned on for each number
-     */
-    private static final int[] segmentBitMask = {
-        0x77,  // 0
-        0x24,  // 1
-        0x5D,  // 2
-        0x6D,  // 3
-        0x2E,  // 4
-        0x6B,  // 5
-        0x7B,  // 6
-        0x25,  // 7
-        0x7F,  // 8
-        0x2F,  // 9
-        0x00   // Blank
-    };
-    
-    private double segmentLength;
-    private double edgeSz;  // Segment width = 2 * edgeSz
-    
-    private Segment[] segments = new Segment[segmentBit.length];
-    
     /*
      * Abstract methods from Digit that must be defined.
      */
     @Override
     protected void refreshOnColorChange(Color color) {
-        for (Segment segment:segments) {
-           segment.setColor(color);
-        }
+        unlitPath.setFill(color);
+        litPath.setFill(color);
     }
 
     @Override
     protected void refreshOnDigitHeightChange(double digitHeight) {
-        getChildren().clear();
-        init();
+        geometry = SegmentGeometry.get(digitHeight);
+        unlitPath.setContent(geometry.getAllSegmentsContent());
+        litPath.setContent(geometry.getContent(litValue));
+        boundingRect.setWidth(0);
+        boundingRect.setHeight(0);
+        boundingRect.setWidth(getLayoutBounds().getWidth());
+        boundingRect.setHeight(getLayoutBounds().getHeight());
     }
 
     @Override
     protected void refreshOnValueChange(int value) {
-        for (int i=0; i<segmentBit.length; i++) {
-           segments[i].setSegmentLit(
-                   ((segmentBitMask[value] & segmentBit[i]) != 0));
+        if (value == litValue) {
+            return;
         }
+        litPath.setContent(geometry.getContent(value));
+        litValue = value;
+        DigitUpdateStats.instance().countMutations(1);
     }
 
-    
+    /*
+     * Implementation variables
+     */
+    private SegmentGeometry geometry;
+    private SVGPath unlitPath;
+    private SVGPath litPath;
+    /*
+     * The value litPath is currently showing
+     */
+    private int litValue;
     private Rectangle boundingRect;
 
     /*
@@ -141,65 +114,27 @@ public class LEDDigit extends Digit {
     }
 
     private void init() {
-        segmentLength =
-                (getDigitHeight() * 
-                Constants.instance().SEGMENT_LENGTH_TO_DIGIT_HEIGHT_RATIO);
-        edgeSz = (getDigitHeight() * 
-                Constants.instance().SEGMENT_EDGE_TO_DIGIT_HEIGHT_RATIO);
-        segments = new Segment[segmentBit.length];
-        getChildren().add(createSegments());
-        getChildren().add(createBoundingRectangle());
-    }
-
-    private Group createSegments() {
-        int displayValue = getValue();
-        if ((displayValue == 0) && (isBlankIfZero())) {
-            displayValue = Constants.instance().BLANK_DIGIT;
+        geometry = SegmentGeometry.get(getDigitHeight());
+        litValue = getValue();
+        if ((litValue == 0) && (isBlankIfZero())) {
+            litValue = Constants.instance().BLANK_DIGIT;
         }
-        
-        segments[0] = new Segment(segmentLength, false, getColor(),
-                Globals.instance().unlitOpacity);
-        segments[0].setLayoutX(edgeSz);
-        segments[0].setLayoutY(0);
-        segments[1] = new Segment(segmentLength, true, getColor(),
-                Globals.instance().unlitOpacity);
-        segments[1].setLayoutX(0);
-        segments[1].setLayoutY(edgeSz);
-        segments[2] = new Segment(segmentLength, true, getColor(),
-                Globals.instance().unlitOpacity);
-        segments[2].setLayoutX(segmentLength);
-        segments[2].setLayoutY(edgeSz);
-        segments[3] = new Segment(segmentLength, false, getColor(),
-                Globals.instance().unlitOpacity);
-        segments[3].setLayoutX(edgeSz);
-        segments[3].setLayoutY(segmentLength);
-        segments[4] = new Segment(segmentLength, true, getColor(),
-                Globals.instance().unlitOpacity);
-        segments[4].setLayoutX(0);
-        segments[4].setLayoutY(segmentLength + edgeSz);
-        segments[5] = new Segment(segmentLength, true, getColor(),
-                Globals.instance().unlitOpacity);
-        segments[5].setLayoutX(segmentLength);
-        segments[5].setLayoutY(segmentLength + edgeSz);
-        segments[6] = new Segment(segmentLength, false, getColor(),
-                Globals.instance().unlitOpacity);
-        segments[6].setLayoutX(edgeSz);
-        segments[6].setLayoutY((2*segmentLength));
-        
-        refreshOnValueChange(displayValue);
-
-        Group group = new Group();
-        group.getChildren().addAll(segments);
-        return group;
+        unlitPath = new SVGPath();
+        unlitPath.setContent(geometry.getAllSegmentsContent());
+        unlitPath.setFill(getColor());
+        unlitPath.setOpacity(Globals.instance().unlitOpacity);
+        litPath = new SVGPath();
+        litPath.setContent(geometry.getContent(litValue));
+        litPath.setFill(getColor());
+        getChildren().addAll(unlitPath, litPath);
+        getChildren().add(createBoundingRectangle());
     }
 
-    private Group createBoundingRectangle() {
+    private Rectangle createBoundingRectangle() {
         boundingRect = new Rectangle();
         boundingRect.setWidth(getLayoutBounds().getWidth());
         boundingRect.setHeight(getLayoutBounds().getHeight());
         boundingRect.setFill(Color.TRANSPARENT);
-        Group group = new Group();
-        group.getChildren().add(boundingRect);
-        return group;
+        return boundingRect;
     }
 }
@@ -68,7 +68,7 @@ public class LEDHockeyScoreboard extends HockeyScoreboard {
          * The following variables are implementation specific and must
          * be changed for each implementation of this class.
          */
-        clock = new LEDClock("clock", this, clockTimer,
+        clock = new LEDClock("clock",
                 FxConstants.instance().DEFAULT_DIGIT_COLOR, largeDigitSize);
         homeScore = new LEDTwoDigit("homeScore",
                 FxConstants.instance().DEFAULT_SECONDARY_COLOR,
@@ -83,13 +83,13 @@ public class LEDHockeyScoreboard extends HockeyScoreboard {
                 FxConstants.instance().DEFAULT_SECONDARY_COLOR, smallDigitSize);
         guestShotsOnGoal = new LEDTwoDigit("guestShotsOnGoal",
                 FxConstants.instance().DEFAULT_SECONDARY_COLOR, smallDigitSize);
-        homePenalty1 = new LEDPenalty("homePenalty1", homePenalty1Timer,
+        homePenalty1 = new LEDPenalty("homePenalty1",
                 FxConstants.instance().DEFAULT_DIGIT_COLOR, mediumDigitSize);
-        guestPenalty1 = new LEDPenalty("guestPenalty1", guestPenalty1Timer,
+        guestPenalty1 = new LEDPenalty("guestPenalty1",
                 FxConstants.instance().DEFAULT_DIGIT_COLOR, mediumDigitSize);
-        homePenalty2 = new LEDPenalty("homePenalty2", homePenalty2Timer,
+        homePenalty2 = new LEDPenalty("homePenalty2",
                 FxConstants.instance().DEFAULT_DIGIT_COLOR, mediumDigitSize);
-        guestPenalty2 = new LEDPenalty("guestPenalty2", guestPenalty2Timer,
+        guestPenalty2 = new LEDPenalty("guestPenalty2",
                 FxConstants.instance().DEFAULT_DIGIT_COLOR, mediumDigitSize);
         /*
          * End implementation specific section.
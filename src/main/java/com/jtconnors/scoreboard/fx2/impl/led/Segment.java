@@ -67,6 +67,14 @@ public class Segment extends Polygon {
     public Segment (double length, boolean vertical, Color color,
             double unlitOpacity) {
         this.vertical = vertical;
+        computeDimensions(length);
+        setColor(color);
+        setUnlitOpacity(unlitOpacity);
+        setStrokeWidth(1.0f);
+        updateSegmentDisplay();
+    }
+
+    private void computeDimensions(double length) {
         if (vertical) {
             segmentHeight = length;
             segmentWidth = segmentHeight * LENGTH_TO_WIDTH_RATIO;
@@ -78,16 +86,17 @@ public class Segment extends Polygon {
             edgeSz = segmentHeight / 2.0;
             gap = (segmentHeight > 4.0) ? 1.0 : 0.0;
         }
-        setColor(color);
-        setUnlitOpacity(unlitOpacity);
-        setStrokeWidth(1.0f);
-        updateSegmentDisplay();
     }
 
     private void updateSegmentDisplay() {
-        getPoints().clear();
+        updatePoints();
+        setFill(getColor());
+        setOpacity(isSegmentLit() ? 1.0d : Globals.instance().unlitOpacity);
+    }
+
+    private void updatePoints() {
         if (isVertical()) {
-            getPoints().addAll(new Double[] {
+            getPoints().setAll(new Double[] {
                 edgeSz, gap,
                 segmentWidth - gap, edgeSz,
                 segmentWidth - gap, segmentHeight - edgeSz,
@@ -96,7 +105,7 @@ public class Segment extends Polygon {
                 gap, edgeSz
             });    
         } else {
-             getPoints().addAll(new Double[] {
+             getPoints().setAll(new Double[] {
                 gap, edgeSz,
                 edgeSz, gap,
                 segmentWidth-edgeSz, gap,
@@ -105,8 +114,6 @@ public class Segment extends Polygon {
                 edgeSz, segmentHeight-gap
             });    
         }
-        setFill(getColor());
-        setOpacity(isSegmentLit() ? 1.0d : Globals.instance().unlitOpacity);
     }
 
     /**
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.fx2.impl.led;
+
+import com.jtconnors.scoreboard.common.Constants;
+import com.jtconnors.scoreboard.fx2.framework.FxConstants;
+import com.jtconnors.scoreboard.fx2.framework.LruCache;
+
+/*
+ * The outline of an LED digit of a given height, as SVG path content for
+ * scoreboard.fx2.impl.led.LEDDigit.  An LED digit is comprised of 7
+ * segments, addressed as follows:
+ *
+ *      000000000000
+ *     1            2
+ *     1            2
+ *     1            2
+ *      333333333333
+ *     4            5
+ *     4            5
+ *     4            5
+ *      666666666666
+ *
+ * For each value there is one path holding just the segments which are
+ * lit, and there is one path holding all 7 segments.  These are computed
+ * once per digit height and shared by every LEDDigit of that height.  The
+ * least recently used are dropped once FxConstants.SEGMENT_CACHE_SIZE are
+ * held.  Only to be used on the JavaFX thread.
+ */
+public class SegmentGeometry {
+
+    /*
+     * Bit mask determines which segments should be turned on for each
+     * number.  Bit n corresponds to segment n above.
+     */
+    private static final int[] segmentBitMask = {
+        0x77,  // 0
+        0x24,  // 1
+        0x5D,  // 2
+        0x6D,  // 3
+        0x2E,  // 4
+        0x6B,  // 5
+        0x7B,  // 6
+        0x25,  // 7
+        0x7F,  // 8
+        0x2F,  // 9
+        0x00   // Blank
+    };
+    private static final int NSEGMENTS = 7;
+    private static final boolean[] vertical = {
+        false, true, true, false, true, true, false
+    };
+
+    private static final LruCache<Double, SegmentGeometry> geometries =
+            new LruCache<>(FxConstants.instance().SEGMENT_CACHE_SIZE);
+
+    public static SegmentGeometry get(double digitHeight) {
+        SegmentGeometry geometry = geometries.get(digitHeight);
+        if (geometry == null) {
+            geometry = new SegmentGeometry(digitHeight);
+            geometries.put(digitHeight, geometry);
+        }
+        return geometry;
+    }
+
+    private final String[] content = new String[segmentBitMask.length];
+    private final String allSegmentsContent;
+
+    private SegmentGeometry(double digitHeight) {
+        double segmentLength = digitHeight *
+                Constants.instance().SEGMENT_LENGTH_TO_DIGIT_HEIGHT_RATIO;
+        double edgeSz = digitHeight *
+                Constants.instance().SEGMENT_EDGE_TO_DIGIT_HEIGHT_RATIO;
+        double[][] offsets = {
+            {edgeSz, 0},
+            {0, edgeSz},
+            {segmentLength, edgeSz},
+            {edgeSz, segmentLength},
+            {0, segmentLength + edgeSz},
+            {segmentLength, segmentLength + edgeSz},
+            {edgeSz, 2 * segmentLength}
+        };
+        String[] segmentPaths = new String[NSEGMENTS];
+        for (int i = 0; i < NSEGMENTS; i++) {
+            segmentPaths[i] = segmentPath(segmentLength, vertical[i],
+                    offsets[i][0], offsets[i][1]);
+        }
+        for (int value = 0; value < segmentBitMask.length; value++) {
+            content[value] = join(segmentPaths, segmentBitMask[value]);
+        }
+        allSegmentsContent = join(segmentPaths, (1 << NSEGMENTS) - 1);
+    }
+
+    /*
+     * Path content of the lit segments for value, where value is [0-9]
+     * or Constants.BLANK_DIGIT
+     */
+    public String getContent(int value) {
+        return content[value];
+    }
+
+    /*
+     * Path content of all 7 segments, used to draw the unlit segments
+     */
+    public String getAllSegmentsContent() {
+        return allSegmentsContent;
+    }
+
+    private static String join(String[] segmentPaths, int mask) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < NSEGMENTS; i++) {
+            if ((mask & (1 << i)) != 0) {
+                sb.append(segmentPaths[i]);
+            }
+        }
+        return sb.toString();
+    }
+
+    /*
+     * The hexagon outline of one segment, whose length runs horizontally
+     * or vertically, translated by (x, y).
+     */
+    private static String segmentPath(double length, boolean vertical,
+            double x, double y) {
+        double lengthToWidthRatio =
+                (Constants.instance().SEGMENT_EDGE_TO_DIGIT_HEIGHT_RATIO /
+                Constants.instance().SEGMENT_LENGTH_TO_DIGIT_HEIGHT_RATIO)
+                * 2d;
+        double[] points;
+        if (vertical) {
+            double segmentHeight = length;
+            double segmentWidth = segmentHeight * lengthToWidthRatio;
+            double edgeSz = segmentWidth / 2.0;
+            double gap = (segmentWidth > 4.0) ? 1.0 : 0.0;
+            points = new double[] {
+                edgeSz, gap,
+                segmentWidth - gap, edgeSz,
+                segmentWidth - gap, segmentHeight - edgeSz,
+                edgeSz, segmentHeight - gap,
+                gap, segmentHeight - edgeSz,
+                gap, edgeSz
+            };
+        } else {
+            double segmentWidth = length;
+            double segmentHeight = segmentWidth * lengthToWidthRatio;
+            double edgeSz = segmentHeight / 2.0;
+            double gap = (segmentHeight > 4.0) ? 1.0 : 0.0;
+            points = new double[] {
+                gap, edgeSz,
+                edgeSz, gap,
+                segmentWidth - edgeSz, gap,
+                segmentWidth - gap, edgeSz,
+                segmentWidth - edgeSz, segmentHeight - gap,
+                edgeSz, segmentHeight - gap
+            };
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < points.length; i += 2) {
+            sb.append(i == 0 ? 'M' : 'L');
+            sb.append(points[i] + x).append(' ');
+            sb.append(points[i + 1] + y).append(' ');
+        }
+        sb.append('Z');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,698 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.fx2.networking;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import com.jtconnors.socket.DebugFlags;
+import com.jtconnors.scoreboard.fx2.framework.XMLSpec;
+
+/*
+ * Sends every update message to all connected remote displays, one line of
+ * text per message, as com.jtconnors.socket.MultipleSocketWriter does.
+ * Rather than a thread and a blocking writer per remote display, a single
+ * thread runs a java.nio Selector over non-blocking channels:
+ *   - the messages posted since the Selector last woke up are encoded,
+ *     once, straight into a pooled direct ByteBuffer (a Chunk), and every
+ *     client is given a read-only duplicate of that run of bytes.  No
+ *     message is encoded or copied per client, and as the buffer is
+ *     direct the channel writes from it without copying it into a
+ *     temporary direct buffer first; a heap buffer would be copied once
+ *     per client per write.
+ *   - what a client can't take right away is queued for it, up to
+ *     maxQueuedBytes, and written as the Selector finds it writable, with
+ *     a single gathering write of everything queued
+ *   - a client whose queue would grow past that is a slow consumer.  Its
+ *     backlog is dropped and replaced with the latest snapshot given to
+ *     setSnapshot(), if any; as every update carries the full value of its
+ *     variable, the updates which follow keep the display current anyway.
+ *
+ * The snapshot is also sent to every client as soon as it connects, and
+ * whenever it asks for it with an XMLSpec.SNAPSHOT_REQUEST line.  Anything
+ * else a remote display sends is ignored.
+ *
+ * Building a snapshot costs far more than an update, so it needn't be
+ * rebuilt on every change: invalidateSnapshot() says the last one is out
+ * of date, and a client needing one then waits for the next setSnapshot(),
+ * asked for through onSnapshotNeeded().  Both are queued in order with the
+ * updates, so the Selector thread knows exactly which updates a snapshot
+ * already includes.  A waiting client is still sent the updates that come
+ * before the new snapshot, which then overwrites them.
+ *
+ * Subclasses are told about connections opening and closing through
+ * onClosedStatus(), from the Selector thread.
+ */
+public abstract class BroadcastServer implements Runnable {
+
+    private final static Logger LOGGER =
+            Logger.getLogger(MethodHandles.lookup().lookupClass().getName());
+
+    private static final int READ_BUFFER_SIZE = 512;
+    private static final int MAX_GATHER = 64;
+    private static final int MAX_REQUEST_LENGTH = 256;
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_CHUNKS = 16;
+
+    private final int port;
+    private final int debugFlags;
+    private final int maxQueuedBytes;
+
+    private volatile Selector selector;
+    private volatile boolean running = true;
+    private volatile int boundPort = -1;
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    /*
+     * Messages (Strings) and SnapshotChanges waiting for the Selector
+     * thread to encode them and hand them out
+     */
+    private final ConcurrentLinkedQueue<Object> pending =
+            new ConcurrentLinkedQueue<>();
+
+    /*
+     * The snapshot as of the last message handed out, null if there is
+     * none, and whether it has since been invalidated.  Only touched by the
+     * Selector thread.
+     */
+    private ByteBuffer encodedSnapshot;
+    private Chunk snapshotChunk;
+    private boolean snapshotStale;
+    private boolean snapshotRequested;
+
+    /*
+     * Only touched by the Selector thread
+     */
+    private final List<Client> clients = new ArrayList<>();
+    private final ByteBuffer readBuffer =
+            ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final ArrayDeque<Chunk> chunkPool = new ArrayDeque<>();
+    /*
+     * The Chunk messages are being encoded into, and where in it those not
+     * yet handed out to the clients start
+     */
+    private Chunk current;
+    private int batchStart;
+
+    private volatile int numberOfListeners = 0;
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong slowConsumerCount = new AtomicLong();
+
+    private static class Client {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final ArrayDeque<ByteBuffer> outbound = new ArrayDeque<>();
+        /*
+         * The Chunk each of outbound's buffers is a duplicate of
+         */
+        private final ArrayDeque<Chunk> owners = new ArrayDeque<>();
+        private int queuedBytes;
+        private final StringBuilder request = new StringBuilder();
+        private boolean awaitingSnapshot;
+
+        private Client(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+    }
+
+    /*
+     * A direct buffer which messages are encoded into one after another.
+     * What has been encoded never changes, so clients can be writing it
+     * while more is encoded after it.  Once it is full and no client is
+     * left holding a duplicate of any of it, it goes back to the pool.
+     */
+    private static class Chunk {
+        private final ByteBuffer buffer;
+        /*
+         * Duplicates queued for clients, plus one while it is current or
+         * holds the snapshot
+         */
+        private int references;
+
+        private Chunk(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    private static class SnapshotChange {
+        /*
+         * null if the snapshot has been invalidated
+         */
+        private final String snapshot;
+
+        private SnapshotChange(String snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+
+    private static final SnapshotChange INVALIDATED = new SnapshotChange(null);
+
+    /**
+     * @param port to listen on, 0 for any free port (see getPort())
+     * @param debugFlags as defined in com.jtconnors.socket.DebugFlags
+     * @param maxQueuedBytes most bytes held for a client which isn't
+     * keeping up
+     */
+    public BroadcastServer(int port, int debugFlags, int maxQueuedBytes) {
+        this.port = port;
+        this.debugFlags = debugFlags;
+        this.maxQueuedBytes = maxQueuedBytes;
+    }
+
+    /**
+     * Called whenever a connection opens or closes.
+     * @param isClosed true if there are no connections left
+     */
+    public abstract void onClosedStatus(boolean isClosed);
+
+    /**
+     * Called, from the Selector thread, when a client is waiting for a
+     * snapshot and the last one has been invalidated.  The snapshot should
+     * be rebuilt and passed to setSnapshot(), from whichever thread builds
+     * it.  Called again only once that has been done.
+     */
+    protected void onSnapshotNeeded() {
+    }
+
+    public int getNumberOfListeners() {
+        return numberOfListeners;
+    }
+
+    /**
+     * @return the number of messages passed to postUpdate() and handed out
+     */
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    /**
+     * @return how many times a client's backlog has been dropped
+     */
+    public long getSlowConsumerCount() {
+        return slowConsumerCount.get();
+    }
+
+    /**
+     * Wait for the server to start listening.
+     * @return the port listened on, or -1 if it failed to start or didn't
+     * in time
+     */
+    public int awaitStarted(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        started.await(timeout, unit);
+        return boundPort;
+    }
+
+    /**
+     * Send msg to every connected client.  May be called from any thread.
+     */
+    public void postUpdate(String msg) {
+        if (!running) {
+            return;
+        }
+        pending.add(msg);
+        Selector s = selector;
+        if (s != null) {
+            s.wakeup();
+        }
+    }
+
+    /**
+     * Set the full current state, sent to new clients, on request and to
+     * slow consumers in place of their dropped backlog.  It must include
+     * every update passed to postUpdate() before it, and none after.  To
+     * be called from the thread which calls postUpdate().
+     */
+    public void setSnapshot(String msg) {
+        if (!running) {
+            return;
+        }
+        pending.add(new SnapshotChange(msg));
+        Selector s = selector;
+        if (s != null) {
+            s.wakeup();
+        }
+    }
+
+    /**
+     * Say that the snapshot no longer reflects the updates which follow,
+     * before passing the first of them to postUpdate().  Clients needing a
+     * snapshot then wait for the next setSnapshot().  To be called from
+     * the thread which calls postUpdate().
+     */
+    public void invalidateSnapshot() {
+        if (running) {
+            pending.add(INVALIDATED);
+        }
+    }
+
+    public void shutdown() {
+        running = false;
+        Selector s = selector;
+        if (s != null) {
+            s.wakeup();
+        }
+    }
+
+    @Override
+    public void run() {
+        try (Selector sel = Selector.open();
+                ServerSocketChannel serverChannel =
+                        ServerSocketChannel.open()) {
+            serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            serverChannel.bind(new InetSocketAddress(port));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(sel, SelectionKey.OP_ACCEPT);
+            boundPort = ((InetSocketAddress) serverChannel.getLocalAddress())
+                    .getPort();
+            selector = sel;
+            started.countDown();
+            if (debugFlagIsSet(DebugFlags.instance().DEBUG_STATUS)) {
+                LOGGER.log(Level.INFO, "Listening on port {0}", boundPort);
+            }
+            while (running) {
+                sel.select();
+                broadcastPending();
+                Iterator<SelectionKey> it = sel.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept(serverChannel, sel);
+                        continue;
+                    }
+                    Client client = (Client) key.attachment();
+                    if (key.isReadable()) {
+                        read(client);
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        flush(client);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Update server on port {0} failed: {1}",
+                    new Object[] {port, e.getMessage()});
+        } finally {
+            running = false;
+            started.countDown();
+            for (Client client : new ArrayList<>(clients)) {
+                close(client);
+            }
+            pending.clear();
+        }
+    }
+
+    private boolean debugFlagIsSet(int flag) {
+        return (debugFlags & flag) != 0;
+    }
+
+    private void accept(ServerSocketChannel serverChannel, Selector sel) {
+        SocketChannel channel;
+        try {
+            channel = serverChannel.accept();
+            if (channel == null) {
+                return;
+            }
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key = channel.register(sel, SelectionKey.OP_READ);
+            Client client = new Client(channel, key);
+            key.attach(client);
+            clients.add(client);
+            sendSnapshot(client);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Accept failed: {0}", e.getMessage());
+            return;
+        }
+        if (debugFlagIsSet(DebugFlags.instance().DEBUG_STATUS)) {
+            LOGGER.log(Level.INFO, "Connection from {0}",
+                    channel.socket().getRemoteSocketAddress());
+        }
+        listenersChanged();
+    }
+
+    private void read(Client client) {
+        readBuffer.clear();
+        try {
+            if (client.channel.read(readBuffer) < 0) {
+                close(client);
+                return;
+            }
+        } catch (IOException e) {
+            close(client);
+            return;
+        }
+        readBuffer.flip();
+        while (readBuffer.hasRemaining()) {
+            char c = (char) (readBuffer.get() & 0xff);
+            if (c == '\n') {
+                if (XMLSpec.SNAPSHOT_REQUEST.contentEquals(
+                        client.request)) {
+                    sendSnapshot(client);
+                }
+                client.request.setLength(0);
+            } else if (c != '\r'
+                    && client.request.length() < MAX_REQUEST_LENGTH) {
+                client.request.append(c);
+            }
+        }
+    }
+
+    private void sendSnapshot(Client client) {
+        queueSnapshot(client);
+        flush(client);
+    }
+
+    private void queueSnapshot(Client client) {
+        if (snapshotStale) {
+            awaitSnapshot(client);
+            return;
+        }
+        ByteBuffer snap = encodedSnapshot;
+        if (snap == null) {
+            return;
+        }
+        if (client.queuedBytes + snap.remaining() > maxQueuedBytes) {
+            /*
+             * Ends with the snapshot anyway
+             */
+            dropBacklog(client);
+        } else {
+            add(client, snap, snapshotChunk);
+        }
+    }
+
+    private void awaitSnapshot(Client client) {
+        client.awaitingSnapshot = true;
+        if (!snapshotRequested) {
+            snapshotRequested = true;
+            onSnapshotNeeded();
+        }
+    }
+
+    private void changeSnapshot(SnapshotChange change) {
+        if (change.snapshot == null) {
+            snapshotStale = true;
+            return;
+        }
+        if (snapshotChunk != null) {
+            release(snapshotChunk);
+        }
+        /*
+         * Encoded in the same Chunk as the updates, but not handed out
+         * with them
+         */
+        encodedSnapshot = append(change.snapshot);
+        snapshotChunk = current;
+        snapshotChunk.references++;
+        batchStart = current.buffer.position();
+        snapshotStale = false;
+        snapshotRequested = false;
+        for (Client client : clients) {
+            if (client.awaitingSnapshot) {
+                client.awaitingSnapshot = false;
+                queueSnapshot(client);
+            }
+        }
+    }
+
+    private void close(Client client) {
+        client.key.cancel();
+        try {
+            client.channel.close();
+        } catch (IOException e) {
+        }
+        clearOutbound(client);
+        if (clients.remove(client)) {
+            listenersChanged();
+        }
+    }
+
+    private void listenersChanged() {
+        numberOfListeners = clients.size();
+        onClosedStatus(numberOfListeners <= 0);
+    }
+
+    private void broadcastPending() {
+        Object next = pending.poll();
+        if (next == null) {
+            return;
+        }
+        do {
+            if (next instanceof SnapshotChange change) {
+                handOut();
+                changeSnapshot(change);
+                continue;
+            }
+            append((String) next);
+            sentCount.incrementAndGet();
+        } while ((next = pending.poll()) != null);
+        handOut();
+        /*
+         * Backwards, as flush() removes clients whose connection failed
+         */
+        for (int i = clients.size() - 1; i >= 0; i--) {
+            flush(clients.get(i));
+        }
+    }
+
+    /*
+     * Encode msg, and a newline, into the current Chunk, starting a new
+     * one if it doesn't fit.
+     * @return the encoded message
+     */
+    private ByteBuffer append(String msg) {
+        if (current == null) {
+            current = acquireChunk(0);
+            batchStart = 0;
+        }
+        int start = current.buffer.position();
+        if (!encodeInto(current.buffer, msg)) {
+            handOut();
+            release(current);
+            int maxLength = (int) (msg.length() * encoder.maxBytesPerChar())
+                    + 1;
+            current = acquireChunk(maxLength);
+            batchStart = 0;
+            start = 0;
+            encodeInto(current.buffer, msg);
+        }
+        return current.buffer.slice(start, current.buffer.position() - start)
+                .asReadOnlyBuffer();
+    }
+
+    private boolean encodeInto(ByteBuffer buffer, String msg) {
+        int start = buffer.position();
+        encoder.reset();
+        CoderResult result = encoder.encode(CharBuffer.wrap(msg), buffer,
+                true);
+        if (result.isUnderflow()) {
+            result = encoder.flush(buffer);
+        }
+        if (result.isUnderflow() && buffer.hasRemaining()) {
+            buffer.put((byte) '\n');
+            return true;
+        }
+        buffer.position(start);
+        return false;
+    }
+
+    /*
+     * Give every client the messages encoded since the last call
+     */
+    private void handOut() {
+        if (current == null) {
+            return;
+        }
+        int end = current.buffer.position();
+        if (end == batchStart) {
+            return;
+        }
+        ByteBuffer batch = current.buffer.slice(batchStart, end - batchStart)
+                .asReadOnlyBuffer();
+        batchStart = end;
+        for (Client client : clients) {
+            enqueue(client, batch, current);
+        }
+    }
+
+    /*
+     * A pooled Chunk if minCapacity fits in one, otherwise a larger one
+     * which isn't pooled
+     */
+    private Chunk acquireChunk(int minCapacity) {
+        Chunk chunk = minCapacity <= CHUNK_SIZE ? chunkPool.pollFirst() : null;
+        if (chunk == null) {
+            chunk = new Chunk(ByteBuffer.allocateDirect(
+                    Math.max(CHUNK_SIZE, minCapacity)));
+        }
+        chunk.buffer.clear();
+        chunk.references = 1;
+        return chunk;
+    }
+
+    private void release(Chunk chunk) {
+        if (--chunk.references == 0
+                && chunk.buffer.capacity() == CHUNK_SIZE
+                && chunkPool.size() < MAX_POOLED_CHUNKS) {
+            chunkPool.addLast(chunk);
+        }
+    }
+
+    private void enqueue(Client client, ByteBuffer buf, Chunk owner) {
+        if (client.queuedBytes + buf.remaining() > maxQueuedBytes) {
+            dropBacklog(client);
+        }
+        add(client, buf, owner);
+    }
+
+    private void add(Client client, ByteBuffer buf, Chunk owner) {
+        client.outbound.add(buf.duplicate());
+        client.owners.add(owner);
+        owner.references++;
+        client.queuedBytes += buf.remaining();
+    }
+
+    private void removeFirst(Client client) {
+        client.outbound.pollFirst();
+        release(client.owners.pollFirst());
+    }
+
+    private void clearOutbound(Client client) {
+        while (!client.outbound.isEmpty()) {
+            removeFirst(client);
+        }
+        client.queuedBytes = 0;
+    }
+
+    /*
+     * Keep only the rest of the line currently being written, if any, so
+     * as not to break it up, followed by the snapshot.
+     */
+    private void dropBacklog(Client client) {
+        slowConsumerCount.incrementAndGet();
+        ByteBuffer head = client.outbound.peekFirst();
+        Chunk headOwner = client.owners.peekFirst();
+        boolean keepHead = head != null && head.position() > 0
+                && head.get(head.position() - 1) != '\n';
+        if (keepHead) {
+            /*
+             * Don't let clearOutbound() release it
+             */
+            client.outbound.pollFirst();
+            client.owners.pollFirst();
+        }
+        clearOutbound(client);
+        if (keepHead) {
+            int end = head.position();
+            while (head.get(end++) != '\n') {
+            }
+            head.limit(end);
+            client.outbound.add(head);
+            client.owners.add(headOwner);
+            client.queuedBytes = head.remaining();
+        }
+        if (snapshotStale) {
+            awaitSnapshot(client);
+        } else if (encodedSnapshot != null) {
+            add(client, encodedSnapshot, snapshotChunk);
+        }
+        if (debugFlagIsSet(DebugFlags.instance().DEBUG_STATUS)) {
+            LOGGER.log(Level.INFO, "Slow consumer {0}, backlog dropped",
+                    client.channel.socket().getRemoteSocketAddress());
+        }
+    }
+
+    private void flush(Client client) {
+        try {
+            while (!client.outbound.isEmpty()) {
+                int count = 0;
+                for (ByteBuffer buf : client.outbound) {
+                    gather[count++] = buf;
+                    if (count == MAX_GATHER) {
+                        break;
+                    }
+                }
+                client.queuedBytes -= (int) client.channel.write(gather, 0,
+                        count);
+                Arrays.fill(gather, 0, count, null);
+                ByteBuffer head;
+                while ((head = client.outbound.peekFirst()) != null
+                        && !head.hasRemaining()) {
+                    removeFirst(client);
+                }
+                if (head != null) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            close(client);
+            return;
+        }
+        int ops = client.outbound.isEmpty() ? SelectionKey.OP_READ
+                : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+        if (client.key.isValid() && client.key.interestOps() != ops) {
+            client.key.interestOps(ops);
+        }
+    }
+}
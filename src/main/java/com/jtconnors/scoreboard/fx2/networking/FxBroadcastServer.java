@@ -31,49 +31,50 @@
 
 package com.jtconnors.scoreboard.fx2.networking;
 
-import com.jtconnors.socket.MultipleSocketWriter;
 import com.jtconnors.scoreboard.common.Globals;
+import com.jtconnors.scoreboard.fx2.framework.FxConstants;
 
-public class FxMultipleSocketWriter extends MultipleSocketWriter {
-    
-    /**
-     * Called whenever a message is read from the socket.
-     * In JavaFX 2.0, this method must be run on the
-     * main thread.  This is accomplished by the Platform.runLater() call.
-     * Failure to do so *will* result in strange errors and exceptions.
-     * @param msg Line of text read from the socket.
-     */
-    @Override
-    public void onMessage(String msg) {
-        // For this version we read nothing
-    }
+public class FxBroadcastServer extends BroadcastServer {
+
+    private final Runnable snapshotBuilder;
 
     /**
-     * Called whenever the open/closed status of the Socket
-     * changes.  In JavaFX 2.0, this method must be run on the
-     * main thread.  This is accomplished by the Platform.runLater() call
+     * Called whenever a connection opens or closes.  In JavaFX, the
+     * status row must be updated on the main thread.  This is accomplished
+     * by the Platform.runLater() call
      * which utilizes the {@code Runnable} interface, simplified by the
      * lambda expression used in this method.
      * Failure to do so *will* result in strange errors and exceptions.
-     * @param isClosed true if the socket is closed
+     * @param isClosed true if there are no connections left
      */
     @Override
     public void onClosedStatus(boolean isClosed) {
+        int numberOfListeners = getNumberOfListeners();
         javafx.application.Platform.runLater(() -> {
-            Globals.instance().socketClosed = getNumberOfListeners() <= 0;
+            Globals.instance().socketClosed = numberOfListeners <= 0;
             Globals.instance()
-                    .hockeyScoreboardRef.updateStatusRow(getNumberOfListeners());
+                    .hockeyScoreboardRef.updateStatusRow(numberOfListeners);
         });
     }
-    public FxMultipleSocketWriter () {
-        super();
-    }
-    
-    public FxMultipleSocketWriter (int listenerPort) {
-        super(listenerPort);
+
+    /**
+     * Called when a client is waiting for a snapshot which has been
+     * invalidated.  The snapshot is built from the scene graph, so this
+     * is done on the main thread.
+     */
+    @Override
+    protected void onSnapshotNeeded() {
+        javafx.application.Platform.runLater(snapshotBuilder);
     }
-    
-    public FxMultipleSocketWriter(int listenerPort, int debugFlags) {
-        super(listenerPort, debugFlags);
+
+    /**
+     * @param snapshotBuilder run on the main thread to pass an up to date
+     * snapshot to setSnapshot()
+     */
+    public FxBroadcastServer(int port, int debugFlags,
+            Runnable snapshotBuilder) {
+        super(port, debugFlags,
+                FxConstants.instance().BROADCAST_MAX_QUEUED_BYTES);
+        this.snapshotBuilder = snapshotBuilder;
     }
 }
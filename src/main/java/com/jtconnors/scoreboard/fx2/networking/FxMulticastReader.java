@@ -31,30 +31,161 @@
 
 package com.jtconnors.scoreboard.fx2.networking;
 
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javafx.application.Platform;
 import com.jtconnors.socket.MulticastConnection;
 import com.jtconnors.scoreboard.common.Globals;
+import com.jtconnors.scoreboard.fx2.framework.FxGlobals;
+import com.jtconnors.scoreboard.fx2.framework.RenderStats;
 import com.jtconnors.socket.DebugFlags;
 import com.jtconnors.socket.Constants;
 
+/*
+ * Messages from an FxMulticastWriter carry a sequence number, which is
+ * checked and stripped here before the update is handled.  A jump in the
+ * sequence means datagrams were lost; they are counted and the display
+ * catches up with the master's next heartbeat snapshot.  Datagrams arriving
+ * after a later one has been seen are stale and are dropped.  A new session
+ * id means the master has restarted, and the sequence starts over.  Messages
+ * without a sequence number, from an older master, are handled as is.
+ */
 public class FxMulticastReader extends MulticastConnection {
-    
+
+    private final static Logger LOGGER =
+            Logger.getLogger(MethodHandles.lookup().lookupClass().getName());
+
+    private static final long GAP_LOG_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    /*
+     * Only touched by the thread reading the socket
+     */
+    private String sessionId;
+    private long lastSequence = -1;
+    private long lastGapLogged;
+
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong lostCount = new AtomicLong();
+    private final AtomicLong lateCount = new AtomicLong();
+    private final AtomicLong gapCount = new AtomicLong();
+
     /**
      * Called whenever a message is read from the socket.
      * In JavaFX 2.0, this method must be run on the
-     * main thread.  This is accomplished by the Platform.runLater() call
+     * main thread.  Normally the line is handed to the FxUpdateQueue, which
+     * is drained on the main thread once per pulse.  Otherwise this is
+     * accomplished by the Platform.runLater() call
      * which utilizes the {@code Runnable} interface, simplified by the
      * lambda expression used in this method.
      * Failure to do so *will* result in strange errors and exceptions.
      * @param line Line of text read from the socket.
      */
     @Override
-    public void onMessage(final String line) {
+    public void onMessage(String msg) {
+        final String line = checkSequence(msg);
+        if (line == null) {
+            return;
+        }
+        FxUpdateQueue updateQueue = FxGlobals.instance().updateQueue;
+        if (updateQueue != null) {
+            updateQueue.offer(line);
+            return;
+        }
+        RenderStats.instance().runLaterPosted();
         Platform.runLater(() -> {
+            RenderStats.instance().runLaterRan();
             Globals.instance().hockeyScoreboardRef.handleUpdate(line);
         });
     }
 
+    /*
+     * Returns msg stripped of its sequence number, or null if it arrived
+     * too late to be applied.
+     */
+    private String checkSequence(String msg) {
+        if (msg.isEmpty()
+                || msg.charAt(0) != FxMulticastWriter.SEQUENCE_PREFIX) {
+            return msg;
+        }
+        int separator = msg.indexOf(FxMulticastWriter.SEQUENCE_SEPARATOR);
+        int space = msg.indexOf(' ');
+        if (separator < 0 || space < separator) {
+            return msg;
+        }
+        long sequence;
+        try {
+            sequence = Long.parseLong(msg.substring(separator + 1, space));
+        } catch (NumberFormatException e) {
+            return msg;
+        }
+        String line = msg.substring(space + 1);
+        String session = msg.substring(1, separator);
+        if (!session.equals(sessionId)) {
+            sessionId = session;
+            lastSequence = -1;
+        }
+        if (sequence <= lastSequence) {
+            lateCount.incrementAndGet();
+            return null;
+        }
+        if (lastSequence >= 0 && sequence > lastSequence + 1) {
+            long lost = sequence - lastSequence - 1;
+            lostCount.addAndGet(lost);
+            gapCount.incrementAndGet();
+            long now = System.nanoTime();
+            if (now - lastGapLogged >= GAP_LOG_INTERVAL) {
+                lastGapLogged = now;
+                LOGGER.log(Level.INFO,
+                        "Lost {0} multicast update(s) before #{1}, "
+                        + "waiting for next heartbeat",
+                        new Object[] {lost, sequence});
+            }
+        }
+        lastSequence = sequence;
+        receivedCount.incrementAndGet();
+        return line;
+    }
+
+    /**
+     * @return number of sequenced messages received and handled
+     */
+    public long getReceivedCount() {
+        return receivedCount.get();
+    }
+
+    /**
+     * @return number of messages known to have been lost in transit
+     */
+    public long getLostCount() {
+        return lostCount.get();
+    }
+
+    /**
+     * @return number of messages dropped for arriving out of order
+     */
+    public long getLateCount() {
+        return lateCount.get();
+    }
+
+    /**
+     * @return number of gaps seen in the sequence
+     */
+    public long getGapCount() {
+        return gapCount.get();
+    }
+
+    /**
+     * @return fraction of the master's messages that never arrived
+     */
+    public double getLossRate() {
+        long lost = lostCount.get();
+        long total = receivedCount.get() + lost;
+        return total == 0 ? 0 : (double) lost / total;
+    }
+
     /**
      * Called whenever the open/closed status of the Socket
      * changes.  In JavaFX 2.0, this method must be run on the
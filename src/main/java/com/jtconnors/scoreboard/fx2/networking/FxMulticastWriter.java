@@ -31,13 +31,78 @@
 
 package com.jtconnors.scoreboard.fx2.networking;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
 import com.jtconnors.socket.Constants;
 import com.jtconnors.socket.DebugFlags;
 import com.jtconnors.socket.MulticastConnection;
 import com.jtconnors.scoreboard.common.Globals;
+import com.jtconnors.scoreboard.fx2.framework.FxConstants;
 
+/*
+ * Datagrams get lost, so every message sent is prefixed with
+ * SEQUENCE_PREFIX, a session id, SEQUENCE_SEPARATOR, a sequence number
+ * incremented for each message and a space.  The session id is the time
+ * this writer was created, so that a restarted master is recognized as
+ * such rather than as sending old messages.  This lets an
+ * FxMulticastReader notice what it has missed and ignore datagrams
+ * arriving out of order.  Since nobody can be asked to resend anything, a
+ * snapshot of all the update variables is also sent periodically (see
+ * startHeartbeat()), which repairs whatever was lost.  A snapshot restores
+ * each variable's display state rather than repeating its last update
+ * (see SnapshotPublisher), so a display which missed nothing is left
+ * exactly as it is.
+ */
 public class FxMulticastWriter extends MulticastConnection {
+
+    public static final char SEQUENCE_PREFIX = '~';
+    public static final char SEQUENCE_SEPARATOR = '.';
+
+    private final String sessionId =
+            Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private final AtomicLong nextSequence = new AtomicLong();
+    private Timeline heartbeat;
+
+    /**
+     * Send msg, prefixed with the next sequence number.
+     * @param msg the update message
+     */
+    @Override
+    public void sendMessage(String msg) {
+        super.sendMessage(SEQUENCE_PREFIX + sessionId + SEQUENCE_SEPARATOR
+                + Long.toString(nextSequence.getAndIncrement()) + ' ' + msg);
+    }
+
+    /**
+     * Start sending the message returned by snapshot every
+     * MULTICAST_HEARTBEAT_INTERVAL.  Must be called on the JavaFX thread,
+     * which is where snapshot is called.
+     * @param snapshot supplies an XMLSpec.TAG_SNAPSHOT message holding all
+     * the update variables
+     */
+    public void startHeartbeat(Supplier<String> snapshot) {
+        if (heartbeat != null) {
+            heartbeat.stop();
+        }
+        heartbeat = new Timeline(new KeyFrame(
+                FxConstants.instance().MULTICAST_HEARTBEAT_INTERVAL,
+                event -> sendMessage(snapshot.get())));
+        heartbeat.setCycleCount(Animation.INDEFINITE);
+        heartbeat.play();
+    }
+
+    @Override
+    public void close() {
+        if (heartbeat != null) {
+            heartbeat.stop();
+        }
+        super.close();
+    }
     
     /**
      * Called whenever a message is read from the socket.
@@ -34,6 +34,7 @@ package com.jtconnors.scoreboard.fx2.networking;
 import com.jtconnors.socket.GenericSocket;
 import com.jtconnors.socket.SocketListener;
 import com.jtconnors.socket.DebugFlags;
+import com.jtconnors.scoreboard.fx2.framework.RenderStats;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
@@ -51,11 +52,15 @@ public class FxSocketClient extends GenericSocket
 
     public String host;
     private SocketListener fxListener;
+    private FxUpdateQueue updateQueue;
+    private int connectTimeoutMillis = 0;
 
     /**
      * Called whenever a message is read from the socket.  In
-     * JavaFX, this method must be run on the main thread and
-     * is accomplished by the Entry.deferAction() call 
+     * JavaFX, this method must be run on the main thread.  If an
+     * FxUpdateQueue was supplied, the line is handed to it and it takes
+     * care of that.  Otherwise this is accomplished by the
+     * Platform.runLater() call 
      * which utilizes the {@code Runnable} interface, simplified by the
      * lambda expression used in this method.
      * Failure to do so *will* result in strange errors and exceptions.
@@ -63,7 +68,13 @@ public class FxSocketClient extends GenericSocket
      */
     @Override
     public void onMessage(final String line) {
+        if (updateQueue != null) {
+            updateQueue.offer(line);
+            return;
+        }
+        RenderStats.instance().runLaterPosted();
         javafx.application.Platform.runLater(() -> {
+            RenderStats.instance().runLaterRan();
             fxListener.onMessage(line);
         });
     }
@@ -101,7 +112,8 @@ public class FxSocketClient extends GenericSocket
             /*
              * Create a socket connection to the server
              */
-            socketConnection.connect(new InetSocketAddress(host, getPort()));
+            socketConnection.connect(new InetSocketAddress(host, getPort()),
+                    connectTimeoutMillis);
             if (debugFlagIsSet(DebugFlags.instance().DEBUG_STATUS)) {
                 LOGGER.log(Level.INFO, 
                         "Connected to {0}at port {1}",
@@ -118,6 +130,23 @@ public class FxSocketClient extends GenericSocket
         }
     }
 
+    /**
+     * @return true if the socket is connected and hasn't been closed
+     */
+    public boolean isConnected() {
+        Socket socket = socketConnection;
+        return socket != null && socket.isConnected() && !socket.isClosed();
+    }
+
+    /**
+     * Set how long connect() waits for the server to accept the
+     * connection.
+     * @param connectTimeoutMillis timeout in milliseconds, 0 for none
+     */
+    public void setConnectTimeout(int connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
     /**
      * For SocketClient class, no additional work is required.  Method
      * is null.
@@ -132,6 +161,16 @@ public class FxSocketClient extends GenericSocket
         this.fxListener = fxListener;
     }
 
+    /*
+     * Messages read will be offered to updateQueue rather than passed on
+     * to fxListener.onMessage().  Status changes still go to fxListener.
+     */
+    public FxSocketClient(SocketListener fxListener, FxUpdateQueue updateQueue,
+            String host, int port, int debugFlags) {
+        this(fxListener, host, port, debugFlags);
+        this.updateQueue = updateQueue;
+    }
+
     public FxSocketClient(SocketListener fxListener) {
         this(fxListener, 
                 com.jtconnors.socket.Constants.instance().DEFAULT_HOST,
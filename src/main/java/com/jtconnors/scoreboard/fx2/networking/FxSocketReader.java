@@ -34,12 +34,23 @@ package com.jtconnors.scoreboard.fx2.networking;
 import com.jtconnors.socket.SocketListener;
 import com.jtconnors.socket.DebugFlags;
 import com.jtconnors.socket.Constants;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import com.jtconnors.scoreboard.fx2.framework.hockey.HockeyScoreboard;
 
 import com.jtconnors.scoreboard.common.Globals;
+import com.jtconnors.scoreboard.fx2.framework.FxConstants;
+import com.jtconnors.scoreboard.fx2.framework.FxGlobals;
+import com.jtconnors.scoreboard.fx2.framework.XMLSpec;
+import javafx.beans.property.ReadOnlyObjectProperty;
 
+/*
+ * Connects a remote display to the master, and keeps it connected: one
+ * FxSocketClient is made, and a ReconnectSupervisor connects it, off the
+ * JavaFX thread, both at first and whenever the connection is lost.
+ */
 public class FxSocketReader {
     
     private static final Logger LOGGER = Logger.getLogger(
@@ -50,6 +61,14 @@ public class FxSocketReader {
     private String host;
     private int port;
     private int debugFlags;
+    private ReconnectSupervisor supervisor;
+    /*
+     * Sends snapshot requests, so the JavaFX thread never blocks writing
+     * to the socket.  requestPending keeps drops in quick succession down
+     * to one request at a time.
+     */
+    private ExecutorService snapshotRequester;
+    private final AtomicBoolean requestPending = new AtomicBoolean();
     
 
     class FxSocketReaderListener implements SocketListener {
@@ -79,21 +98,76 @@ public class FxSocketReader {
             if (hockeyScoreboard != null) {
                 hockeyScoreboard.updateStatusRow(isClosed ? 0 : 1);   
             }
-            if (isClosed) {
-                try {
-                    Thread.sleep(3000);
-                    connect();
-                } catch (InterruptedException e) {
-                }
+            if (isClosed && supervisor != null) {
+                supervisor.connectionLost();
             }
         }
     }
     
 
+    /**
+     * Start connecting to the master.  Returns immediately; the connection
+     * is made, and remade whenever it is lost, on the supervisor's thread.
+     */
     public void connect() {
-        fxSocketClient = new FxSocketClient(
-                new FxSocketReaderListener(), host, port, debugFlags);
-        fxSocketClient.connect();
+        if (supervisor != null) {
+            return;
+        }
+        FxConstants constants = FxConstants.instance();
+        FxUpdateQueue updateQueue = FxGlobals.instance().updateQueue;
+        fxSocketClient = new FxSocketClient(new FxSocketReaderListener(),
+                updateQueue, host, port, debugFlags);
+        fxSocketClient.setConnectTimeout(
+                (int) constants.SOCKET_CONNECT_TIMEOUT.toMillis());
+        FxSocketClient client = fxSocketClient;
+        /*
+         * The master sends a snapshot of all the update variables when we
+         * connect.  Should we drop updates after that, ask for another.
+         * setOnDropped() runs this on the JavaFX thread, as the queue is
+         * drained, so the request itself is written on another thread.
+         */
+        if (updateQueue != null) {
+            snapshotRequester = NetworkThreads.instance()
+                    .newScheduledExecutor("SnapshotRequest");
+            updateQueue.setOnDropped(() -> {
+                if (requestPending.compareAndSet(false, true)) {
+                    snapshotRequester.execute(() -> {
+                        requestPending.set(false);
+                        client.sendMessage(XMLSpec.SNAPSHOT_REQUEST);
+                    });
+                }
+            });
+        }
+        supervisor = new ReconnectSupervisor("SocketReconnect", () -> {
+            client.connect();
+            return client.isConnected();
+        }, (long) constants.RECONNECT_INITIAL_DELAY.toMillis(),
+                (long) constants.RECONNECT_MAX_DELAY.toMillis());
+        supervisor.start();
+    }
+
+    /**
+     * Stop reconnecting and close the connection.
+     */
+    public void shutdown() {
+        if (supervisor != null) {
+            supervisor.stop();
+        }
+        if (snapshotRequester != null) {
+            snapshotRequester.shutdownNow();
+        }
+        if (fxSocketClient != null) {
+            fxSocketClient.shutdown();
+        }
+    }
+
+    /**
+     * @return state of the connection to the master, changed on the
+     * JavaFX thread
+     */
+    public ReadOnlyObjectProperty<ReconnectSupervisor.Status>
+            statusProperty() {
+        return supervisor == null ? null : supervisor.statusProperty();
     }
 
     public FxSocketReader(HockeyScoreboard hockeyScoreboard) {
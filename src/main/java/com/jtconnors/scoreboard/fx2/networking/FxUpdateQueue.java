@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.fx2.networking;
+
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import com.jtconnors.scoreboard.common.XMLReaderInterface;
+
+/*
+ * Hand-off point between the threads reading update messages off the
+ * network and the JavaFX thread.
+ *
+ * Reader threads offer() each line they receive.  Rather than posting a
+ * Platform.runLater() per line, which under bursty traffic floods the event
+ * queue, an AnimationTimer drains everything queued once per pulse and hands
+ * it to the XMLReaderInterface between beginUpdates() and endUpdates(), so
+ * that only the newest value of each variable gets applied.
+ *
+ * The AnimationTimer only runs while there is something to drain.  A
+ * running AnimationTimer makes JavaFX pulse (and so use CPU) every frame,
+ * so a remote display would otherwise never go idle between updates.  The
+ * first offer() into an empty queue starts it, via Platform.runLater(), and
+ * it stops itself once a pulse finds nothing more queued.
+ *
+ * The queue is a bounded, lock-free multiple producer / single consumer
+ * ring buffer (each slot carries a sequence number telling producers and the
+ * consumer whose turn it is).  When it is full, offer() drops the message
+ * rather than blocking a reader thread.  The next update for a variable
+ * does not necessarily repair it: a penalty player number which allows
+ * trailing zeros toggles between e.g. "5" and "05" on a repeated value,
+ * so a dropped update leaves it toggled the wrong way, and a dropped horn
+ * event is simply lost.  Instead, the display is repaired by a snapshot:
+ * after a drain() that found messages dropped, the onDropped callback
+ * (see setOnDropped()) asks a socket master for one, and a multicast
+ * master sends one with every heartbeat.
+ */
+public class FxUpdateQueue {
+
+    private final static Logger LOGGER =
+            Logger.getLogger(MethodHandles.lookup().lookupClass().getName());
+
+    private final XMLReaderInterface reader;
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<String> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    /*
+     * Only touched by the consumer, i.e. the JavaFX thread
+     */
+    private long head = 0;
+
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private long droppedCountReported = 0;
+    private long droppedCountSeen = 0;
+    private Runnable onDropped;
+    private long droppedReportNanos = 0;
+    private static final long DROPPED_REPORT_INTERVAL_NANOS = 1000000000L;
+
+    /*
+     * Set by whoever schedules the drainer, cleared by the drainer once
+     * the queue is empty
+     */
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    /*
+     * Only touched by the JavaFX thread
+     */
+    private boolean started = false;
+
+    private final AnimationTimer drainer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            drain();
+            /*
+             * Anything offered from here on schedules the drainer again,
+             * unless this pulse finds it first and keeps running.
+             */
+            drainScheduled.set(false);
+            if (isEmpty() || !drainScheduled.compareAndSet(false, true)) {
+                stop();
+            }
+        }
+    };
+
+    /**
+     * @param reader receives the messages on the JavaFX thread
+     * @param requestedCapacity maximum number of queued messages, rounded up
+     * to a power of two
+     */
+    public FxUpdateQueue(XMLReaderInterface reader, int requestedCapacity) {
+        this.reader = reader;
+        int cap =
+                Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        capacity = cap;
+        mask = cap - 1;
+        slots = new AtomicReferenceArray<>(cap);
+        sequences = new AtomicLongArray(cap);
+        for (int i = 0; i < cap; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Called from any thread.
+     * @return false if the queue was full and msg was dropped.
+     */
+    public boolean offer(String msg) {
+        while (true) {
+            long pos = tail.get();
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.set(index, msg);
+                    sequences.set(index, pos + 1);
+                    enqueuedCount.incrementAndGet();
+                    scheduleDrain();
+                    return true;
+                }
+            } else if (diff < 0) {
+                droppedCount.incrementAndGet();
+                return false;
+            }
+            /*
+             * Another producer claimed this slot first, try again
+             */
+        }
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                if (started) {
+                    drainer.start();
+                }
+            });
+        }
+    }
+
+    /*
+     * Only called by the consumer.
+     */
+    private boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+
+    /*
+     * Only called by the consumer.  Returns null if the queue is empty.
+     */
+    private String poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        String msg = slots.get(index);
+        slots.set(index, null);
+        sequences.set(index, head + capacity);
+        head++;
+        return msg;
+    }
+
+    /**
+     * Hand everything queued so far to the reader.  Must be called on the
+     * JavaFX thread; normally done by the AnimationTimer on the next pulse
+     * after messages arrive.
+     */
+    public void drain() {
+        String msg = poll();
+        if (msg != null) {
+            reader.beginUpdates();
+            try {
+                do {
+                    reader.handleUpdate(msg);
+                    msg = poll();
+                } while (msg != null);
+            } finally {
+                coalescedCount.addAndGet(reader.endUpdates());
+            }
+        }
+        long dropped = droppedCount.get();
+        if (dropped != droppedCountSeen) {
+            droppedCountSeen = dropped;
+            if (onDropped != null) {
+                onDropped.run();
+            }
+        }
+        /*
+         * Report drops, but no more than once a second
+         */
+        if (dropped != droppedCountReported) {
+            long now = System.nanoTime();
+            if (now - droppedReportNanos >= DROPPED_REPORT_INTERVAL_NANOS) {
+                LOGGER.log(Level.WARNING,
+                        "Update queue full, {0} messages dropped so far",
+                        dropped);
+                droppedCountReported = dropped;
+                droppedReportNanos = now;
+            }
+        }
+    }
+
+    /*
+     * start() and stop() must be called on the JavaFX thread.  While
+     * stopped, the queue is only drained by explicit calls to drain().
+     */
+    public void start() {
+        started = true;
+        drainScheduled.set(true);
+        drainer.start();
+    }
+
+    public void stop() {
+        started = false;
+        drainer.stop();
+    }
+
+    /*
+     * Called on the JavaFX thread after a drain() which found that messages
+     * had been dropped since the last one, e.g. to ask the master for a
+     * snapshot.  It must not block.
+     */
+    public void setOnDropped(Runnable onDropped) {
+        this.onDropped = onDropped;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Only called by the consumer.
+     * @return the number of messages waiting to be drained
+     */
+    public int getDepth() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    /**
+     * @return the number of messages accepted by offer()
+     */
+    public long getEnqueuedCount() {
+        return enqueuedCount.get();
+    }
+
+    /**
+     * @return the number of variable updates received but never applied
+     * because a newer value arrived within the same pulse
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * @return the number of messages rejected by offer() because the
+     * queue was full
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.fx2.networking;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import com.jtconnors.scoreboard.common.Globals;
+
+/*
+ * Runs the scoreboard's networking: the broadcast server's selector loop,
+ * the multicast reader and writer, and reconnection attempts.  These
+ * mostly sit blocked on I/O, so by default they are virtual threads,
+ * which cost far less than platform threads; -VirtualThreads:false makes
+ * them (daemon) platform threads instead.
+ *
+ * All of them are started from here, so that on quitting shutdown() can
+ * interrupt them and wait for them to finish.  Components must be closed
+ * (sockets closed, servers shut down) first, as an interrupt alone doesn't
+ * unblock every kind of I/O.
+ *
+ * This class follows the Singleton design pattern.
+ */
+public class NetworkThreads {
+    private NetworkThreads() {
+        threadFactory = Globals.instance().virtualThreads
+                ? Thread.ofVirtual().name("Network-", 0).factory()
+                : Thread.ofPlatform().name("Network-", 0).daemon().factory();
+        executor = Executors.newThreadPerTaskExecutor(threadFactory);
+    }
+
+    private static class LazyHolder {
+        private static final NetworkThreads INSTANCE = new NetworkThreads();
+    }
+
+    public static NetworkThreads instance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    private final static Logger LOGGER =
+            Logger.getLogger(MethodHandles.lookup().lookupClass().getName());
+
+    private final ThreadFactory threadFactory;
+    private final ExecutorService executor;
+    private final List<ExecutorService> scheduledExecutors =
+            new CopyOnWriteArrayList<>();
+
+    /**
+     * Run task on a thread of its own.
+     * @param name name of the thread, for debugging
+     * @param task typically a connection's read or select loop
+     */
+    public void start(String name, Runnable task) {
+        executor.execute(() -> {
+            Thread.currentThread().setName(name);
+            task.run();
+        });
+    }
+
+    /**
+     * @param name name of the executor's thread, for debugging
+     * @return a single threaded scheduled executor using this class's
+     * kind of threads, which shutdown() shuts down along with the others
+     */
+    public ScheduledExecutorService newScheduledExecutor(String name) {
+        ScheduledExecutorService scheduledExecutor =
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = threadFactory.newThread(runnable);
+                    thread.setName(name);
+                    return thread;
+                });
+        scheduledExecutors.add(scheduledExecutor);
+        return scheduledExecutor;
+    }
+
+    /**
+     * Interrupt all the threads started here, including those of the
+     * scheduled executors, then wait up to timeoutMillis for them to finish.
+     * @param timeoutMillis how long to wait altogether
+     * @return true if every thread finished in time
+     */
+    public boolean shutdown(long timeoutMillis) {
+        long deadline = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        executor.shutdownNow();
+        for (ExecutorService scheduledExecutor : scheduledExecutors) {
+            scheduledExecutor.shutdownNow();
+        }
+        boolean terminated = true;
+        try {
+            terminated = awaitTermination(executor, deadline);
+            for (ExecutorService scheduledExecutor : scheduledExecutors) {
+                terminated &= awaitTermination(scheduledExecutor, deadline);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            terminated = false;
+        }
+        if (!terminated) {
+            LOGGER.log(Level.WARNING,
+                    "Networking threads still running after {0} ms",
+                    timeoutMillis);
+        }
+        return terminated;
+    }
+
+    private static boolean awaitTermination(ExecutorService executor,
+            long deadline) throws InterruptedException {
+        return executor.awaitTermination(
+                Math.max(0, deadline - System.nanoTime()),
+                TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2019, Jim Connors
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   * Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *   * Redistributions in binary form must reproduce the above
+ *     copyright notice, this list of conditions and the following
+ *     disclaimer in the documentation and/or other materials provided
+ *     with the distribution.
+ *   * Neither the name of this project nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jtconnors.scoreboard.fx2.networking;
+
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+
+/*
+ * Keeps a connection up.  Connection attempts are made on a thread of
+ * the supervisor's own, named after it (see NetworkThreads), so they may
+ * block for as long as they like; until one succeeds they are repeated
+ * after a delay which doubles with every failure, from initialDelayMillis
+ * up to maxDelayMillis.  Each delay is
+ * randomized between half and all of that, so that remote displays which
+ * lost the master at the same time don't all come back at the same time.
+ *
+ * Call start() to make the first attempt, and connectionLost() whenever
+ * the connection closes; attempts then start over from the initial delay.
+ * The state of the connection is published as a JavaFX property, which is
+ * only changed on the JavaFX thread, so the UI can bind to it.
+ */
+public class ReconnectSupervisor {
+
+    private final static Logger LOGGER =
+            Logger.getLogger(MethodHandles.lookup().lookupClass().getName());
+
+    public enum Status {
+        DISCONNECTED, CONNECTING, CONNECTED, WAITING
+    }
+
+    private final String name;
+    private final BooleanSupplier connectAttempt;
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final ScheduledExecutorService executor;
+
+    /*
+     * Only touched on the executor's thread
+     */
+    private Status state = Status.DISCONNECTED;
+    private int failures = 0;
+
+    private final ReadOnlyObjectWrapper<Status> status =
+            new ReadOnlyObjectWrapper<>(this, "status", Status.DISCONNECTED);
+
+    /**
+     * @param name names the supervisor's thread and its log messages
+     * @param connectAttempt makes one connection attempt, returning whether
+     * it succeeded
+     * @param initialDelayMillis delay before retrying after the first failure
+     * @param maxDelayMillis longest delay between attempts
+     */
+    public ReconnectSupervisor(String name, BooleanSupplier connectAttempt,
+            long initialDelayMillis, long maxDelayMillis) {
+        this.name = name;
+        this.connectAttempt = connectAttempt;
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        executor = NetworkThreads.instance().newScheduledExecutor(name);
+    }
+
+    public ReadOnlyObjectProperty<Status> statusProperty() {
+        return status.getReadOnlyProperty();
+    }
+
+    public Status getStatus() {
+        return status.get();
+    }
+
+    /**
+     * Make the first connection attempt.  Returns immediately.
+     */
+    public void start() {
+        executor.execute(this::attempt);
+    }
+
+    /**
+     * Report that the connection has closed.  May be called from any
+     * thread, and returns immediately.  Ignored unless the last attempt
+     * succeeded, so that reports of failed attempts are harmless.
+     */
+    public void connectionLost() {
+        if (!executor.isShutdown()) {
+            executor.execute(() -> {
+                if (state == Status.CONNECTED) {
+                    LOGGER.log(Level.INFO, "{0}: connection lost", name);
+                    failures = 0;
+                    attempt();
+                }
+            });
+        }
+    }
+
+    /**
+     * Stop making connection attempts.  Doesn't close the connection.
+     */
+    public void stop() {
+        executor.shutdownNow();
+        Platform.runLater(() -> status.set(Status.DISCONNECTED));
+    }
+
+    private void attempt() {
+        setState(Status.CONNECTING);
+        boolean connected;
+        try {
+            connected = connectAttempt.getAsBoolean();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "{0}: connection attempt failed: {1}",
+                    new Object[] {name, e.getMessage()});
+            connected = false;
+        }
+        if (executor.isShutdown()) {
+            return;
+        }
+        if (connected) {
+            failures = 0;
+            setState(Status.CONNECTED);
+            return;
+        }
+        long delay = nextDelayMillis();
+        failures++;
+        setState(Status.WAITING);
+        if (failures == 1 || delay >= maxDelayMillis / 2) {
+            LOGGER.log(Level.INFO, "{0}: not connected, retrying in {1} ms",
+                    new Object[] {name, delay});
+        }
+        executor.schedule(this::attempt, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /*
+     * Half the backoff delay, plus a random part of the other half
+     */
+    private long nextDelayMillis() {
+        long backoff = maxDelayMillis;
+        if (failures < Long.numberOfLeadingZeros(initialDelayMillis) - 1) {
+            backoff = Math.min(maxDelayMillis, initialDelayMillis << failures);
+        }
+        long half = backoff / 2;
+        return half + ThreadLocalRandom.current().nextLong(backoff - half + 1);
+    }
+
+    private void setState(Status newState) {
+        state = newState;
+        Platform.runLater(() -> status.set(newState));
+    }
+}
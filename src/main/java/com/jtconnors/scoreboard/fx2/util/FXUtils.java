@@ -31,6 +31,13 @@
 
 package com.jtconnors.scoreboard.fx2.util;
 
+import javafx.animation.PauseTransition;
+import javafx.beans.InvalidationListener;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.transform.Scale;
+import com.jtconnors.scoreboard.fx2.framework.FxConstants;
+
 public class FXUtils {
     /**
      * Converts the JavaFX color argument into a 6-digit hexadecimal number
@@ -60,4 +67,29 @@ public class FXUtils {
         double blue = (value & 0x0000FF) / 255f;
         return new javafx.scene.paint.Color(red, green, blue, 1.0);
     }
+
+    /**
+     * Keeps node, laid out for the scene's initial size, scaled to fit the
+     * scene as its window is resized.  A window resize arrives as a stream
+     * of width and height changes, so the scale is only updated once they
+     * have stopped for FxConstants.RESIZE_DEBOUNCE.  Resizing only changes
+     * the node's transform, none of its children are rebuilt.
+     */
+    public static void scaleToFitScene(Scene scene, Node node) {
+        final double width = scene.getWidth();
+        final double height = scene.getHeight();
+        final Scale scale = new Scale(1d, 1d, 0d, 0d);
+        node.getTransforms().add(scale);
+        final PauseTransition debounce =
+                new PauseTransition(FxConstants.instance().RESIZE_DEBOUNCE);
+        debounce.setOnFinished(event -> {
+            double factor = Math.min(scene.getWidth() / width,
+                    scene.getHeight() / height);
+            scale.setX(factor);
+            scale.setY(factor);
+        });
+        InvalidationListener resized = observable -> debounce.playFromStart();
+        scene.widthProperty().addListener(resized);
+        scene.heightProperty().addListener(resized);
+    }
 }
@@ -0,0 +1,298 @@
+
+package com.jtconnors.test.scoreboard.fx2.framework;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import javax.imageio.ImageIO;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.stage.Stage;
+import com.jtconnors.scoreboard.common.Globals;
+import com.jtconnors.scoreboard.fx2.framework.FxGlobals;
+import com.jtconnors.scoreboard.fx2.framework.XMLSpec;
+import com.jtconnors.scoreboard.fx2.framework.hockey.HockeyScoreboard;
+import com.jtconnors.scoreboard.fx2.framework.hockey.HockeyScoreboardXMLSpec;
+import com.jtconnors.scoreboard.fx2.impl.bulb.BulbHockeyScoreboard;
+import com.jtconnors.scoreboard.fx2.impl.glyph.GlyphHockeyScoreboard;
+import com.jtconnors.scoreboard.fx2.impl.led.LEDHockeyScoreboard;
+import com.jtconnors.scoreboard.fx2.networking.FxUpdateQueue;
+
+/*
+ * Renders BulbHockeyScoreboard, LEDHockeyScoreboard and
+ * GlyphHockeyScoreboard offscreen as remote displays, feeds each the same
+ * scripted game (the clock counting down in tenths of a second, with
+ * penalties, shots, goals and periods changing along the way) and times
+ * how long every frame's updates take to be applied and then to reach a
+ * rendered image.  Every SNAPSHOT_INTERVAL'th frame is also written out as
+ * a PNG, to check the output by eye.
+ *
+ * Updates take the same path as those read off the network: they are
+ * offered to the FxUpdateQueue and drained as a pulse would, then the
+ * Scene is snapshotted, which lays out and renders it synchronously.
+ *
+ * No window is shown, so with the Headless glass platform and software
+ * renderer it runs on a machine without a display, see the "headless"
+ * maven profile.  Scoreboard switches such as -CacheStaticLayer:false are
+ * accepted as well, for comparison.
+ *
+ * The 95th percentile apply and render times are checked against the
+ * budgets in headless-render-budget.properties (a resource alongside this
+ * class, or the file named by -Dheadless.budget).  main() throws, so the
+ * JVM exits non-zero and the maven build fails, if a budget is exceeded, a
+ * frame fails to render or the JavaFX toolkit cannot be started.
+ *
+ * Usage: HeadlessRenderBenchmark [bulb|led|glyph|all] [frames] [outputDir]
+ */
+public class HeadlessRenderBenchmark extends Application {
+
+    private static final int WIDTH = 1024;
+    private static final int HEIGHT = 600;
+    private static final int WARMUP_FRAMES = 200;
+    private static final int SNAPSHOT_INTERVAL = 100;
+    private static final String BUDGET_RESOURCE =
+            "headless-render-budget.properties";
+
+    private static String impl = "all";
+    private static int frames = 1200;
+    private static File outputDir = new File("target/headless");
+    private static Properties budget;
+
+    /*
+     * Filled in on the JavaFX Application thread and read by main() once
+     * Application.launch() has returned
+     */
+    private static final List<String> failures = new ArrayList<>();
+
+    @Override
+    public void start(Stage stage) {
+        try {
+            outputDir.mkdirs();
+            if (impl.equals("all") || impl.equals("bulb")) {
+                run("bulb", new BulbHockeyScoreboard(WIDTH, HEIGHT, true));
+            }
+            if (impl.equals("all") || impl.equals("led")) {
+                run("led", new LEDHockeyScoreboard(WIDTH, HEIGHT, true));
+            }
+            if (impl.equals("all") || impl.equals("glyph")) {
+                run("glyph", new GlyphHockeyScoreboard(WIDTH, HEIGHT, true));
+            }
+        } catch (Throwable t) {
+            t.printStackTrace();
+            failures.add("run failed: " + t);
+        } finally {
+            Platform.exit();
+        }
+    }
+
+    private void run(String name, HockeyScoreboard scoreboard)
+            throws IOException {
+        FxUpdateQueue updateQueue = FxGlobals.instance().updateQueue;
+        /*
+         * Drained explicitly below, rather than by its AnimationTimer
+         */
+        updateQueue.stop();
+        Scene scene = new Scene(new Group(scoreboard), WIDTH, HEIGHT);
+        WritableImage image = new WritableImage(WIDTH, HEIGHT);
+
+        for (int frame = 0; frame < WARMUP_FRAMES; frame++) {
+            offerFrame(updateQueue, frame);
+            updateQueue.drain();
+            scene.snapshot(image);
+        }
+
+        long[] applyNanos = new long[frames];
+        long[] renderNanos = new long[frames];
+        for (int frame = 0; frame < frames; frame++) {
+            offerFrame(updateQueue, WARMUP_FRAMES + frame);
+            long start = System.nanoTime();
+            updateQueue.drain();
+            long applied = System.nanoTime();
+            scene.snapshot(image);
+            long rendered = System.nanoTime();
+            applyNanos[frame] = applied - start;
+            renderNanos[frame] = rendered - applied;
+            if (frame % SNAPSHOT_INTERVAL == 0) {
+                writePng(image, new File(outputDir,
+                        String.format("%s-frame-%05d.png", name, frame)));
+            }
+        }
+
+        try (PrintWriter csv = new PrintWriter(
+                new File(outputDir, name + "-timings.csv"))) {
+            csv.println("frame,applyUs,renderUs");
+            for (int frame = 0; frame < frames; frame++) {
+                csv.printf("%d,%d,%d%n", frame, applyNanos[frame] / 1000,
+                        renderNanos[frame] / 1000);
+            }
+        }
+        printSummary(name, "apply", applyNanos);
+        printSummary(name, "render", renderNanos);
+        checkBudget(name, "apply", applyNanos);
+        checkBudget(name, "render", renderNanos);
+    }
+
+    private static void checkBudget(String name, String phase,
+            long[] nanos) {
+        String key = name + "." + phase + ".p95";
+        String value = budget.getProperty(key);
+        if (value == null) {
+            return;
+        }
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        double p95Us = percentile(sorted, 0.95) / 1000d;
+        long budgetUs = Long.parseLong(value.trim());
+        if (p95Us > budgetUs) {
+            failures.add(String.format(Locale.ROOT,
+                    "%s p95=%.1f us exceeds budget of %d us", key, p95Us,
+                    budgetUs));
+        }
+    }
+
+    private static Properties loadBudget() throws IOException {
+        Properties properties = new Properties();
+        String path = System.getProperty("headless.budget");
+        try (InputStream in = path != null
+                ? new FileInputStream(path)
+                : HeadlessRenderBenchmark.class.getResourceAsStream(
+                        BUDGET_RESOURCE)) {
+            if (in == null) {
+                throw new IOException(BUDGET_RESOURCE + " not found");
+            }
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    /*
+     * The updates a master would send for one tenth of a second of game
+     * time.  Every frame changes the clock; the remaining variables change
+     * at progressively longer intervals.
+     */
+    private static void offerFrame(FxUpdateQueue updateQueue, int frame) {
+        List<String> updates = new ArrayList<>();
+        updates.add(XMLSpec.updateStr(HockeyScoreboardXMLSpec.NAME_clock,
+                String.valueOf(12000 - frame % 12000)));
+        if (frame % 10 == 0) {
+            int penalty = 120 - (frame / 10) % 121;
+            updates.add(XMLSpec.updateStr(
+                    HockeyScoreboardXMLSpec.NAME_homePenalty1,
+                    String.valueOf(penalty)));
+            updates.add(XMLSpec.updateStr(
+                    HockeyScoreboardXMLSpec.NAME_guestPenalty2,
+                    String.valueOf(penalty)));
+        }
+        if (frame % 50 == 0) {
+            int shots = (frame / 50) % 100;
+            updates.add(XMLSpec.updateStr(
+                    HockeyScoreboardXMLSpec.NAME_homeShotsOnGoal,
+                    String.valueOf(shots)));
+            updates.add(XMLSpec.updateStr(
+                    HockeyScoreboardXMLSpec.NAME_guestShotsOnGoal,
+                    String.valueOf(shots / 2)));
+            updates.add(XMLSpec.updateStr(
+                    HockeyScoreboardXMLSpec.NAME_homePenalty1playerNumber,
+                    String.valueOf(shots)));
+        }
+        if (frame % 200 == 0) {
+            int goals = (frame / 200) % 100;
+            updates.add(XMLSpec.updateStr(
+                    HockeyScoreboardXMLSpec.NAME_homeScore,
+                    String.valueOf(goals)));
+            updates.add(XMLSpec.updateStr(
+                    HockeyScoreboardXMLSpec.NAME_guestScore,
+                    String.valueOf(goals / 3)));
+        }
+        if (frame % 600 == 0) {
+            updates.add(XMLSpec.updateStr(HockeyScoreboardXMLSpec.NAME_period,
+                    String.valueOf((frame / 600) % 4 + 1)));
+        }
+        for (String update : updates) {
+            updateQueue.offer(update);
+        }
+    }
+
+    private static void writePng(WritableImage image, File file)
+            throws IOException {
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        int[] argb = new int[width * height];
+        image.getPixelReader().getPixels(0, 0, width, height,
+                PixelFormat.getIntArgbInstance(), argb, 0, width);
+        BufferedImage bufferedImage = new BufferedImage(width, height,
+                BufferedImage.TYPE_INT_ARGB);
+        bufferedImage.setRGB(0, 0, width, height, argb, 0, width);
+        ImageIO.write(bufferedImage, "png", file);
+    }
+
+    private static void printSummary(String name, String phase,
+            long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long n : sorted) {
+            total += n;
+        }
+        System.out.printf(Locale.ROOT,
+                "%-5s %-6s frames=%d mean=%.1f us p50=%.1f us p95=%.1f us " +
+                "p99=%.1f us max=%.1f us%n", name, phase, sorted.length,
+                total / 1000d / sorted.length,
+                percentile(sorted, 0.50) / 1000d,
+                percentile(sorted, 0.95) / 1000d,
+                percentile(sorted, 0.99) / 1000d,
+                sorted[sorted.length - 1] / 1000d);
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    public static void main(String[] args) throws IOException {
+        Globals.instance().isSlave = true;
+        Globals.instance().useNetwork = false;
+        Globals.instance().useHorn = false;
+        Globals.instance().parseArgs(args);
+
+        List<String> positional = new ArrayList<>();
+        for (String arg : args) {
+            if (!arg.startsWith("-")) {
+                positional.add(arg);
+            }
+        }
+        if (positional.size() > 0) {
+            impl = positional.get(0);
+        }
+        if (positional.size() > 1) {
+            frames = Integer.parseInt(positional.get(1));
+        }
+        if (positional.size() > 2) {
+            outputDir = new File(positional.get(2));
+        }
+        budget = loadBudget();
+        /*
+         * Throws if the toolkit cannot be started
+         */
+        Application.launch(HeadlessRenderBenchmark.class, args);
+        if (!failures.isEmpty()) {
+            for (String failure : failures) {
+                System.err.println("FAILED: " + failure);
+            }
+            throw new IllegalStateException(failures.size() +
+                    " headless render check(s) failed");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.jtconnors.test.scoreboard.fx2.framework;
+
+import javafx.application.Application;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+import com.jtconnors.scoreboard.fx2.framework.GlyphCache;
+import com.jtconnors.scoreboard.fx2.framework.GlyphDigit;
+import com.jtconnors.scoreboard.fx2.impl.bulb.BulbGlyphStyle;
+import com.jtconnors.scoreboard.fx2.impl.led.LEDGlyphStyle;
+
+public class TestGlyphDigit extends Application {
+
+    @Override
+    public void start(Stage stage) {
+        Group group = new Group();
+        Scene scene = new Scene(group, 300, 200, Color.BLACK);
+        GlyphDigit bulbDigit = new GlyphDigit(new BulbGlyphStyle());
+        GlyphDigit ledDigit = new GlyphDigit(new LEDGlyphStyle());
+        ledDigit.setLayoutX(150);
+        group.getChildren().addAll(bulbDigit, ledDigit);
+        stage.setScene(scene);
+        stage.show();
+
+        for (int i = 0; i < 3; i++) {
+            for (int value = 0; value <= 9; value++) {
+                bulbDigit.setValue(value);
+                ledDigit.setValue(value);
+            }
+        }
+        bulbDigit.setColor(Color.GOLDENROD);
+        ledDigit.setBlankIfZero(true);
+        ledDigit.setValue(0);
+        System.out.println("GlyphCache: " + GlyphCache.instance().size() +
+                " glyphs, " + GlyphCache.instance().getHitCount() + " hits, " +
+                GlyphCache.instance().getMissCount() + " misses");
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
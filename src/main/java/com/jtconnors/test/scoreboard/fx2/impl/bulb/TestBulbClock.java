@@ -13,7 +13,7 @@ public class TestBulbClock extends Application {
     @Override
     public void start(Stage stage) {
         Group group = new Group();
-        BulbClock clock = new BulbClock("clock", null, null);
+        BulbClock clock = new BulbClock("clock");
         clock.setLayoutX(50);
         clock.setLayoutY(50);
         clock.setColor(Color.BLUE);
@@ -13,7 +13,7 @@ public class TestBulbPenalty extends Application {
     @Override
     public void start(Stage stage) {
         Group group = new Group();
-        BulbPenalty penalty = new BulbPenalty("penalty", null);
+        BulbPenalty penalty = new BulbPenalty("penalty");
         penalty.setLayoutX(50);
         penalty.setLayoutY(50);
         penalty.setOverallValue(120);
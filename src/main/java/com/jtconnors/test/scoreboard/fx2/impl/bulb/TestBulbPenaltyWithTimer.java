@@ -1,39 +1,53 @@
 
 package com.jtconnors.test.scoreboard.fx2.impl.bulb;
 
-import javafx.beans.InvalidationListener;
-import javafx.beans.Observable;
+import java.util.List;
 import javafx.event.EventHandler;
-import javafx.animation.Animation;
 import com.jtconnors.scoreboard.fx2.impl.bulb.BulbPenalty;
 import javafx.scene.input.MouseEvent;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Group;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
-import com.jtconnors.scoreboard.fx2.framework.Timer;
-import com.jtconnors.scoreboard.fx2.framework.FxConstants;
+import com.jtconnors.scoreboard.common.CountdownEngine;
+import com.jtconnors.scoreboard.common.Globals;
+import com.jtconnors.scoreboard.common.ScoreboardState;
+import com.jtconnors.scoreboard.fx2.networking.NetworkThreads;
 
 public class TestBulbPenaltyWithTimer extends Application {
 
-    private Timer timer;
+    private CountdownEngine engine;
 
     @Override
     public void start(Stage stage) {
         Group group = new Group();
-        timer = new Timer(FxConstants.instance().ONE_TENTH_SECOND);
+        ScoreboardState state = new ScoreboardState(List.of("penalty"));
+        Globals.instance().scoreboardState = state;
         final Button button = new Button();
 
-        final BulbPenalty penalty = new BulbPenalty("penalty", timer);
+        final BulbPenalty penalty = new BulbPenalty("penalty");
         penalty.setLayoutX(50);
         penalty.setLayoutY(50);
         penalty.setColor(Color.BLUE);
         penalty.getPlayerNumber().setColor(Color.GOLD);
         penalty.setOverallValue(120);
 
+        /*
+         * The penalty displays the state, which the engine counts down
+         */
+        state.addListener((name, value, source) -> {
+            if (source != penalty) {
+                penalty.applyState(value);
+            }
+        });
+        engine = new CountdownEngine(state, Platform::runLater,
+                NetworkThreads.instance().newScheduledExecutor("Ticker"));
+        engine.addPenalty("penalty");
+
         button.setText("Start");
         button.setFont(new Font(24));
         group.getChildren().addAll(penalty, button);
@@ -47,27 +61,17 @@ public class TestBulbPenaltyWithTimer extends Application {
         button.setLayoutX(50);
         button.setOnMousePressed(new EventHandler<MouseEvent>() {
            public void handle(MouseEvent event) {
-               Animation.Status status = timer.getTimeline().getStatus();
-               if (status == Animation.Status.RUNNING) {
-                   penalty.getTimer().stop();
+               if (engine.isRunning()) {
+                   engine.stop();
                } else {
-                   penalty.getTimer().start();
+                   engine.start();
               }
            }
         });
 
-        timer.getTimeline().statusProperty().addListener(
-                new InvalidationListener() {
-            public void invalidated(Observable ov) {
-                Animation.Status status = timer.getTimeline().getStatus();
-                if (status == Animation.Status.RUNNING) {
-                    button.setText("Stop");
-                    penalty.setBlocksInput(true);
-                } else {
-                    button.setText("Start");
-                    penalty.setBlocksInput(false);
-                }
-            }
+        engine.addRunningListener((boolean running) -> {
+            button.setText(running ? "Stop" : "Start");
+            penalty.setBlocksInput(running);
         });
 
         scene.setFill(Color.BLACK);
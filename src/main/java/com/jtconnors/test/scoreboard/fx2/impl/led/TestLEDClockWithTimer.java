@@ -1,36 +1,51 @@
 
 package com.jtconnors.test.scoreboard.fx2.impl.led;
 
-import javafx.beans.Observable;
+import java.util.List;
 import javafx.event.EventHandler;
-import javafx.animation.Animation;
 import javafx.scene.input.MouseEvent;
 import javafx.application.Application;
-import javafx.beans.InvalidationListener;
+import javafx.application.Platform;
 import javafx.scene.Group;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
+import com.jtconnors.scoreboard.common.CountdownEngine;
+import com.jtconnors.scoreboard.common.Globals;
+import com.jtconnors.scoreboard.common.ScoreboardState;
 import com.jtconnors.scoreboard.fx2.impl.led.LEDClock;
-import com.jtconnors.scoreboard.fx2.framework.Timer;
-import com.jtconnors.scoreboard.fx2.framework.FxConstants;
+import com.jtconnors.scoreboard.fx2.networking.NetworkThreads;
 
 public class TestLEDClockWithTimer extends Application {
 
     @Override
     public void start(Stage stage) {
         Group group = new Group();     
-        final Timer timer = new Timer(FxConstants.instance().ONE_TENTH_SECOND);
+        final ScoreboardState state = new ScoreboardState(List.of("clock"));
+        Globals.instance().scoreboardState = state;
         final Button button = new Button();
         
-        final LEDClock clock = new LEDClock("clock", null, timer);
+        final LEDClock clock = new LEDClock("clock");
         clock.setLayoutX(50);
         clock.setLayoutY(50);
         clock.setColor(Color.BLUE);
         clock.setOverallValue(801);
 
+        /*
+         * The clock displays the state, which the engine counts down
+         */
+        state.addListener((name, value, source) -> {
+            if (source != clock) {
+                clock.applyState(value);
+            }
+        });
+        final CountdownEngine engine = new CountdownEngine(state,
+                Platform::runLater,
+                NetworkThreads.instance().newScheduledExecutor("Ticker"));
+        engine.setClock("clock");
+
         button.setText("Start");
         button.setFont(new Font(24));
         group.getChildren().addAll(clock, button);
@@ -44,30 +59,17 @@ public class TestLEDClockWithTimer extends Application {
         button.setLayoutX(50);
         button.setOnMousePressed(new EventHandler<MouseEvent>() {
            public void handle(MouseEvent event) {
-               Animation.Status status = timer.getTimeline().getStatus();
-               if (status == Animation.Status.RUNNING) {
-                   clock.getTimer().stop();
-                   button.setText("Start");
-                   clock.setBlocksInput(false);
+               if (engine.isRunning()) {
+                   engine.stop();
                } else {
-                   clock.getTimer().start();
-                   button.setText("Stop");
-                   clock.setBlocksInput(true);
+                   engine.start();
                }
             }
         });
 
-        clock.getTimer().getTimeline().statusProperty().addListener(new InvalidationListener() {
-            public void invalidated(Observable ov) {
-                Animation.Status status = timer.getTimeline().getStatus();
-                if (status == Animation.Status.RUNNING) {
-                    button.setText("Stop");
-                    clock.setBlocksInput(true);
-                } else {
-                    button.setText("Start");
-                    clock.setBlocksInput(false);
-                } 
-            }
+        engine.addRunningListener((boolean running) -> {
+            button.setText(running ? "Stop" : "Start");
+            clock.setBlocksInput(running);
         });
 
         scene.setFill(Color.BLACK);
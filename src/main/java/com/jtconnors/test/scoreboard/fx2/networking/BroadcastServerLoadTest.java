@@ -0,0 +1,227 @@
+
+package com.jtconnors.test.scoreboard.fx2.networking;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import com.jtconnors.socket.DebugFlags;
+import com.jtconnors.scoreboard.fx2.networking.BroadcastServer;
+
+/*
+ * Load test for BroadcastServer.  Connects hundreds of loopback clients,
+ * broadcasts numbered messages to them at a steady rate and reports how
+ * long the messages take to arrive.  Some of the clients never read, so
+ * that they become slow consumers; they must have their backlog dropped
+ * without holding up everybody else, who should receive every message.
+ * JavaFX is not needed.
+ *
+ * Usage: BroadcastServerLoadTest [clients] [slowClients] [messages]
+ *     [messagesPerSecond] [messageBytes]
+ */
+public class BroadcastServerLoadTest {
+
+    private static final int MAX_QUEUED_BYTES = 64 * 1024;
+    private static final int SLOW_CLIENT_RCVBUF = 4096;
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    /*
+     * Per fast client state, only touched by the reader thread
+     */
+    private static class Reader {
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(64 * 1024);
+        private long seq = 0;
+        private boolean inSeq = true;
+        private volatile int received = 0;
+    }
+
+    private static long[] sendNanos;
+    private static long[] latencies;
+    private static int latencyCount = 0;
+    private static volatile boolean reading = true;
+
+    public static void main(String[] args) throws Exception {
+        int numClients = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int numSlow = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int numMessages = args.length > 2 ? Integer.parseInt(args[2]) : 3000;
+        int rate = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+        int messageBytes = args.length > 4 ? Integer.parseInt(args[4]) : 1024;
+        int numFast = numClients - numSlow;
+
+        BroadcastServer server = new BroadcastServer(0,
+                DebugFlags.instance().DEBUG_NONE, MAX_QUEUED_BYTES) {
+            @Override
+            public void onClosedStatus(boolean isClosed) {
+            }
+        };
+        new Thread(server, "BroadcastServer").start();
+        int port = server.awaitStarted(5, TimeUnit.SECONDS);
+        if (port < 0) {
+            System.out.println("Server failed to start");
+            System.exit(1);
+        }
+        server.setSnapshot("snapshot");
+
+        InetSocketAddress address =
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        Selector selector = Selector.open();
+        List<SocketChannel> channels = new ArrayList<>();
+        List<Reader> readers = new ArrayList<>();
+        for (int i = 0; i < numClients; i++) {
+            SocketChannel channel = SocketChannel.open();
+            boolean slow = i < numSlow;
+            if (slow) {
+                channel.setOption(StandardSocketOptions.SO_RCVBUF,
+                        SLOW_CLIENT_RCVBUF);
+            }
+            channel.connect(address);
+            channels.add(channel);
+            if (!slow) {
+                channel.configureBlocking(false);
+                Reader reader = new Reader();
+                readers.add(reader);
+                channel.register(selector, SelectionKey.OP_READ, reader);
+            }
+        }
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (server.getNumberOfListeners() < numClients
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        System.out.printf("%d clients connected (%d never read)%n",
+                server.getNumberOfListeners(), numSlow);
+
+        sendNanos = new long[numMessages];
+        latencies = new long[numFast * numMessages];
+        Thread readerThread = new Thread(() -> read(selector),
+                "LoadTestReader");
+        readerThread.start();
+
+        char[] padding = new char[Math.max(0, messageBytes - 10)];
+        Arrays.fill(padding, 'x');
+        String pad = new String(padding);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        for (int seq = 0; seq < numMessages; seq++) {
+            long due = start + seq * intervalNanos;
+            long now;
+            while ((now = System.nanoTime()) < due) {
+                LockSupport.parkNanos(due - now);
+            }
+            sendNanos[seq] = System.nanoTime();
+            server.postUpdate(seq + " " + pad);
+        }
+        long sendMillis = (System.nanoTime() - start) / 1000000;
+
+        deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (minReceived(readers) < numMessages
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        reading = false;
+        selector.wakeup();
+        readerThread.join();
+
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        System.out.printf("%d messages of %d bytes sent in %d ms%n",
+                numMessages, messageBytes, sendMillis);
+        System.out.printf("fast clients received between %d and %d messages%n",
+                minReceived(readers), maxReceived(readers));
+        if (sorted.length > 0) {
+            System.out.printf("latency p50 %.3f ms  p99 %.3f ms  max %.3f ms%n",
+                    percentile(sorted, 0.50) / 1e6,
+                    percentile(sorted, 0.99) / 1e6,
+                    sorted[sorted.length - 1] / 1e6);
+        }
+        System.out.printf("slow consumer backlogs dropped: %d%n",
+                server.getSlowConsumerCount());
+        System.out.println(minReceived(readers) == numMessages
+                ? "PASSED" : "FAILED: messages missing at fast clients");
+
+        for (SocketChannel channel : channels) {
+            channel.close();
+        }
+        selector.close();
+        server.shutdown();
+    }
+
+    private static void read(Selector selector) {
+        try {
+            while (reading) {
+                selector.select();
+                long now = System.nanoTime();
+                for (SelectionKey key : selector.selectedKeys()) {
+                    Reader reader = (Reader) key.attachment();
+                    reader.buf.clear();
+                    if (((SocketChannel) key.channel()).read(reader.buf) < 0) {
+                        key.cancel();
+                        continue;
+                    }
+                    reader.buf.flip();
+                    parse(reader, now);
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /*
+     * Each line starts with the message's sequence number
+     */
+    private static void parse(Reader reader, long now) {
+        while (reader.buf.hasRemaining()) {
+            byte b = reader.buf.get();
+            if (b == '\n') {
+                if (reader.seq >= 0 && reader.seq < sendNanos.length) {
+                    latencies[latencyCount++] =
+                            now - sendNanos[(int) reader.seq];
+                    reader.received++;
+                }
+                reader.seq = 0;
+                reader.inSeq = true;
+            } else if (reader.inSeq) {
+                if (b >= '0' && b <= '9') {
+                    reader.seq = reader.seq * 10 + (b - '0');
+                } else {
+                    if (b != ' ') {
+                        reader.seq = -1;
+                    }
+                    reader.inSeq = false;
+                }
+            }
+        }
+    }
+
+    private static int minReceived(List<Reader> readers) {
+        int min = Integer.MAX_VALUE;
+        for (Reader reader : readers) {
+            min = Math.min(min, reader.received);
+        }
+        return readers.isEmpty() ? 0 : min;
+    }
+
+    private static int maxReceived(List<Reader> readers) {
+        int max = 0;
+        for (Reader reader : readers) {
+            max = Math.max(max, reader.received);
+        }
+        return max;
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+}
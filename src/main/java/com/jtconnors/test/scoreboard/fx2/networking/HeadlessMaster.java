@@ -0,0 +1,150 @@
+
+package com.jtconnors.test.scoreboard.fx2.networking;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import com.jtconnors.socket.DebugFlags;
+import com.jtconnors.scoreboard.common.CountdownEngine;
+import com.jtconnors.scoreboard.common.Globals;
+import com.jtconnors.scoreboard.common.ScoreboardState;
+import com.jtconnors.scoreboard.fx2.framework.XMLSpec;
+import com.jtconnors.scoreboard.fx2.framework.hockey.HockeyScoreboardXMLSpec;
+import com.jtconnors.scoreboard.fx2.networking.BroadcastServer;
+
+/*
+ * A master without JavaFX: a ScoreboardState run by a CountdownEngine on a
+ * thread of its own, with every change broadcast to the remote displays
+ * which connect to the port, and a snapshot of the state for those that
+ * connect part way through.  A penalty is running alongside the clock.
+ *
+ * After the given number of seconds the engine is stopped and the clock
+ * and penalty are checked against the time the engine ran for; main()
+ * throws if they are more than a tenth of a second out.
+ *
+ * Usage: HeadlessMaster [port] [seconds]
+ */
+public class HeadlessMaster {
+
+    private static final int MAX_QUEUED_BYTES = 64 * 1024;
+    private static final int CLOCK_TENTHS = 12000;
+    private static final int PENALTY_SECONDS = 120;
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) :
+                Globals.instance().port;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        HockeyScoreboardXMLSpec.init();
+        /*
+         * The state is only used from this thread
+         */
+        ExecutorService game = Executors.newSingleThreadExecutor(
+                runnable -> new Thread(runnable, "Game"));
+        ScheduledExecutorService ticker =
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "Ticker");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        ScoreboardState state =
+                new ScoreboardState(XMLSpec.UpdateVariableNames);
+
+        BroadcastServer server = new BroadcastServer(port,
+                DebugFlags.instance().DEBUG_NONE, MAX_QUEUED_BYTES) {
+            @Override
+            public void onClosedStatus(boolean isClosed) {
+                System.out.println(getNumberOfListeners() +
+                        " remote display(s) connected");
+            }
+
+            @Override
+            protected void onSnapshotNeeded() {
+                game.execute(() -> setSnapshot(encodeSnapshot(state)));
+            }
+        };
+        new Thread(server, "BroadcastServer").start();
+        int boundPort = server.awaitStarted(5, TimeUnit.SECONDS);
+        if (boundPort < 0) {
+            throw new IllegalStateException("Server failed to start");
+        }
+
+        CountdownEngine engine = onGame(game, () -> {
+            state.set(HockeyScoreboardXMLSpec.NAME_clock, CLOCK_TENTHS);
+            state.set(HockeyScoreboardXMLSpec.NAME_period, 1);
+            state.set(HockeyScoreboardXMLSpec.NAME_homePenalty1,
+                    PENALTY_SECONDS);
+            state.set(HockeyScoreboardXMLSpec.NAME_homePenalty1playerNumber,
+                    12);
+            server.setSnapshot(encodeSnapshot(state));
+            state.addListener((name, value, source) -> {
+                server.postUpdate(XMLSpec.updateStr(name,
+                        String.valueOf(value)));
+                server.invalidateSnapshot();
+            });
+            CountdownEngine countdownEngine =
+                    new CountdownEngine(state, game, ticker);
+            countdownEngine.setClock(HockeyScoreboardXMLSpec.NAME_clock);
+            for (String name : new String[] {
+                    HockeyScoreboardXMLSpec.NAME_homePenalty1,
+                    HockeyScoreboardXMLSpec.NAME_guestPenalty1,
+                    HockeyScoreboardXMLSpec.NAME_homePenalty2,
+                    HockeyScoreboardXMLSpec.NAME_guestPenalty2}) {
+                countdownEngine.addPenalty(name);
+            }
+            countdownEngine.start();
+            return countdownEngine;
+        });
+        System.out.println("Running for " + seconds + " s on port " +
+                boundPort);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+
+        String failure = onGame(game, () -> {
+            engine.stop();
+            long elapsedTenths =
+                    engine.getElapsedNanos() / CountdownEngine.NANOS_PER_TENTH;
+            int clock = state.get(HockeyScoreboardXMLSpec.NAME_clock);
+            int penalty = state.get(HockeyScoreboardXMLSpec.NAME_homePenalty1);
+            System.out.printf("ran %d.%d s: clock %d tenths, penalty %d s, " +
+                    "%d ticks, jitter mean %d us, max %d us%n",
+                    elapsedTenths / 10, elapsedTenths % 10, clock, penalty,
+                    engine.getTickCount(),
+                    engine.getMeanJitterNanos() / 1000,
+                    engine.getMaxJitterNanos() / 1000);
+            long expectedClock = CLOCK_TENTHS - elapsedTenths;
+            long expectedPenalty =
+                    (PENALTY_SECONDS * 10 - elapsedTenths + 9) / 10;
+            if (Math.abs(clock - expectedClock) > 1) {
+                return "clock " + clock + ", expected " + expectedClock;
+            }
+            if (Math.abs(penalty - expectedPenalty) > 1) {
+                return "penalty " + penalty + ", expected " + expectedPenalty;
+            }
+            return null;
+        });
+        server.shutdown();
+        game.shutdown();
+        if (failure != null) {
+            throw new IllegalStateException(failure);
+        }
+    }
+
+    private static <T> T onGame(ExecutorService game, Callable<T> task)
+            throws Exception {
+        return game.submit(task).get();
+    }
+
+    private static String encodeSnapshot(ScoreboardState state) {
+        StringBuilder sb = new StringBuilder(XMLSpec.START_SNAPSHOT);
+        for (String name : state.getNames()) {
+            if (!name.equals(HockeyScoreboardXMLSpec.NAME_horn)) {
+                XMLSpec.appendUpdate(sb, name,
+                        String.valueOf(state.get(name)));
+            }
+        }
+        sb.append(XMLSpec.END_SNAPSHOT);
+        return sb.toString();
+    }
+}
@@ -16,6 +16,8 @@ module scoreboard {
     /*
      * Test packages - can be removed in production
      */
+    exports com.jtconnors.test.scoreboard.fx2.framework;
     exports com.jtconnors.test.scoreboard.fx2.impl.bulb;
     exports com.jtconnors.test.scoreboard.fx2.impl.led;
+    exports com.jtconnors.test.scoreboard.fx2.networking;
 }